@@ -0,0 +1,84 @@
+package io.github.pr0methean.semver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A read-only {@link CharSequence} view of a byte array or {@link ByteBuffer}, decoding each byte as one ISO-8859-1
+ * (and thus ASCII) character. Lets {@link SemanticVersionParser} scan network and file buffers in place; only the
+ * Strings it keeps (prerelease suffixes and build metadata) are ever copied out.
+ */
+abstract sealed class AsciiCharSequence implements CharSequence {
+  static AsciiCharSequence of(byte[] array) {
+    return new OfArray(array);
+  }
+
+  static AsciiCharSequence of(ByteBuffer buffer) {
+    return new OfBuffer(buffer);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    Objects.checkFromToIndex(start, end, length());
+    return substring(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return substring(0, length());
+  }
+
+  abstract String substring(int start, int end);
+
+  private static final class OfArray extends AsciiCharSequence {
+    private final byte[] array;
+
+    OfArray(byte[] array) {
+      this.array = array;
+    }
+
+    @Override
+    public int length() {
+      return array.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (array[index] & 0xFF);
+    }
+
+    @Override
+    String substring(int start, int end) {
+      return new String(array, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+  }
+
+  /**
+   * Uses absolute indexing up to the buffer's limit, so its position is neither used nor changed.
+   */
+  private static final class OfBuffer extends AsciiCharSequence {
+    private final ByteBuffer buffer;
+
+    OfBuffer(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int length() {
+      return buffer.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (buffer.get(index) & 0xFF);
+    }
+
+    @Override
+    String substring(int start, int end) {
+      byte[] bytes = new byte[end - start];
+      buffer.get(start, bytes);
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
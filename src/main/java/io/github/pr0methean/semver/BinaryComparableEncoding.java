@@ -0,0 +1,241 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encodes SemanticVersion instances as byte sequences whose unsigned lexicographic order (as used by
+ * {@link Arrays#compareUnsigned(byte[], byte[])}, memcmp, and most key-value stores) matches
+ * {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}, or {@link SemanticVersion#TOTAL_ORDERING} when the build
+ * metadata is included. This lets range scans over stored keys run without decoding them.
+ *
+ * <p>The layout is: <ul>
+ *   <li>The major, minor and patch versions, each as a length byte (0 to 8) followed by that many big-endian bytes.
+ *       A longer encoding always means a larger number, so lengths compare before values.</li>
+ *   <li>For each prerelease identifier, 0x01 followed by 0x01 and a length-prefixed number if it has a numeric part,
+ *       or 0x02 if not, then its suffix and a terminating zero byte. Numeric identifiers thus sort first, and suffixes
+ *       (whose characters are all above zero) sort lexicographically with shorter first.</li>
+ *   <li>0x00 if there were prerelease identifiers, or 0x02 if not, so that a release sorts after its prereleases and
+ *       a shorter identifier list sorts before a longer one it's a prefix of.</li>
+ *   <li>Optionally, the build metadata: 0x00 if absent, or 0x01 followed by each UTF-16 code unit, below 0x80 as one
+ *       byte and otherwise as three bytes {@code 0x80 | (c >> 14)}, {@code 0x80 | ((c >> 7) & 0x7F)},
+ *       {@code 0x80 | (c & 0x7F)}. This preserves {@link String#compareTo} order.</li>
+ * </ul>
+ */
+public final class BinaryComparableEncoding {
+  static final int END_OF_PRERELEASE = 0x00;
+  static final int IDENTIFIER = 0x01;
+  static final int RELEASE = 0x02;
+  static final int NUMERIC = 0x01;
+  static final int NON_NUMERIC = 0x02;
+  static final int NO_BUILD_METADATA = 0x00;
+  static final int BUILD_METADATA = 0x01;
+  private static final int MULTI_BYTE_CHAR = 0x80;
+
+  private BinaryComparableEncoding() {}
+
+  /**
+   * @param version the version to encode
+   * @param includeBuildMetadata whether to append the build metadata, so that the encoding's order matches
+   *     {@link SemanticVersion#TOTAL_ORDERING} rather than {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @return the binary-comparable encoding of {@code version}
+   */
+  public static byte[] encode(SemanticVersion version, boolean includeBuildMetadata) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+    writeUnsigned(out, version.majorVersion());
+    writeUnsigned(out, version.minorVersion());
+    writeUnsigned(out, version.patchVersion());
+    if (version.isPrerelease()) {
+      for (PrereleaseIdentifier identifier : prereleaseIdentifiers(version)) {
+        out.write(IDENTIFIER);
+        if (identifier.hasNumericPart()) {
+          out.write(NUMERIC);
+          writeUnsigned(out, identifier.numericPart());
+        } else {
+          out.write(NON_NUMERIC);
+        }
+        String suffix = identifier.suffix();
+        for (int i = 0; i < suffix.length(); i++) {
+          out.write(suffix.charAt(i)); // Always [0-9A-Za-z-], so one nonzero byte each
+        }
+        out.write(0);
+      }
+      out.write(END_OF_PRERELEASE);
+    } else {
+      out.write(RELEASE);
+    }
+    if (includeBuildMetadata) {
+      @Nullable String buildMetadata = version.buildMetadata();
+      if (buildMetadata == null) {
+        out.write(NO_BUILD_METADATA);
+      } else {
+        out.write(BUILD_METADATA);
+        for (int i = 0; i < buildMetadata.length(); i++) {
+          char c = buildMetadata.charAt(i);
+          if (c < MULTI_BYTE_CHAR) {
+            out.write(c);
+          } else {
+            out.write(MULTI_BYTE_CHAR | (c >> 14));
+            out.write(MULTI_BYTE_CHAR | ((c >> 7) & 0x7F));
+            out.write(MULTI_BYTE_CHAR | (c & 0x7F));
+          }
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static PrereleaseIdentifier[] prereleaseIdentifiers(SemanticVersion version) {
+    return Objects.requireNonNull(SemanticVersionImpl.copyOf(version).prereleaseVersionArray());
+  }
+
+  private static void writeUnsigned(ByteArrayOutputStream out, @Unsigned long value) {
+    int length = (Long.SIZE - Long.numberOfLeadingZeros(value) + 7) / 8;
+    out.write(length);
+    for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  /**
+   * @param encoded the output of {@link #encode(SemanticVersion, boolean)}
+   * @return the version that was encoded (including its build metadata, if that was encoded)
+   * @throws IllegalArgumentException if {@code encoded} isn't a valid encoding
+   */
+  public static SemanticVersion decode(byte[] encoded) {
+    return decode(encoded, 0, encoded.length);
+  }
+
+  /**
+   * @param encoded an array containing the output of {@link #encode(SemanticVersion, boolean)}
+   * @param offset the index where the encoding starts
+   * @param length the length of the encoding
+   * @return the version that was encoded (including its build metadata, if that was encoded)
+   * @throws IllegalArgumentException if the slice isn't a valid encoding
+   * @throws IndexOutOfBoundsException if the slice isn't within {@code encoded}
+   */
+  public static SemanticVersion decode(byte[] encoded, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, encoded.length);
+    Reader in = new Reader(encoded, offset, offset + length);
+    @Unsigned long major = in.readUnsigned();
+    @Unsigned long minor = in.readUnsigned();
+    @Unsigned long patch = in.readUnsigned();
+    @Nullable PrereleaseIdentifier[] prerelease = null;
+    int marker = in.read();
+    if (marker == IDENTIFIER) {
+      PrereleaseIdentifier[] identifiers = new PrereleaseIdentifier[4];
+      int count = 0;
+      do {
+        boolean hasNumericPart = switch (in.read()) {
+          case NUMERIC -> true;
+          case NON_NUMERIC -> false;
+          default -> throw in.malformed();
+        };
+        @Unsigned long numericPart = hasNumericPart ? in.readUnsigned() : 0;
+        int suffixStart = in.pos;
+        while (in.read() != 0) {
+          char c = (char) (encoded[in.pos - 1] & 0xFF);
+          // A leading digit would belong to the numeric part, so it can't start the suffix
+          if (!SemanticVersionParser.isValidIdentifierChar(c) || (in.pos - 1 == suffixStart && c >= '0' && c <= '9')) {
+            throw in.malformed();
+          }
+        }
+        String suffix = new String(encoded, suffixStart, in.pos - 1 - suffixStart,
+            StandardCharsets.US_ASCII);
+        if (!hasNumericPart && suffix.isEmpty()) {
+          throw in.malformed();
+        }
+        if (count == identifiers.length) {
+          identifiers = Arrays.copyOf(identifiers, count * 2);
+        }
+        identifiers[count] = new PrereleaseIdentifier(hasNumericPart, numericPart, suffix).canonical();
+        count++;
+        marker = in.read();
+      } while (marker == IDENTIFIER);
+      if (marker != END_OF_PRERELEASE) {
+        throw in.malformed();
+      }
+      prerelease = Arrays.copyOf(identifiers, count);
+    } else if (marker != RELEASE) {
+      throw in.malformed();
+    }
+    @Nullable String buildMetadata = null;
+    if (in.pos < in.end) {
+      int metadataMarker = in.read();
+      if (metadataMarker == BUILD_METADATA) {
+        if (in.pos == in.end) {
+          throw in.malformed();
+        }
+        StringBuilder metadata = new StringBuilder(in.end - in.pos);
+        while (in.pos < in.end) {
+          int b = in.read();
+          if (b < MULTI_BYTE_CHAR) {
+            metadata.append((char) b);
+          } else {
+            int b2 = in.read();
+            int b3 = in.read();
+            // A char has 16 bits, so the lead byte carries at most 2 of them
+            if (b > (MULTI_BYTE_CHAR | 0x03) || b2 < MULTI_BYTE_CHAR || b3 < MULTI_BYTE_CHAR) {
+              throw in.malformed();
+            }
+            int c = ((b & 0x7F) << 14) | ((b2 & 0x7F) << 7) | (b3 & 0x7F);
+            if (c < MULTI_BYTE_CHAR) {
+              throw in.malformed(); // Not the shortest encoding, so it wouldn't sort correctly
+            }
+            metadata.append((char) c);
+          }
+        }
+        buildMetadata = metadata.toString();
+      } else if (metadataMarker != NO_BUILD_METADATA || in.pos < in.end) {
+        throw in.malformed();
+      }
+    }
+    return SemanticVersionImpl.of(major, minor, patch, prerelease, buildMetadata);
+  }
+
+  private static final class Reader {
+    private final byte[] bytes;
+    private final int start;
+    private final int end;
+    private int pos;
+
+    Reader(byte[] bytes, int start, int end) {
+      this.bytes = bytes;
+      this.start = start;
+      this.end = end;
+      this.pos = start;
+    }
+
+    int read() {
+      if (pos >= end) {
+        throw new IllegalArgumentException("Truncated semantic version encoding");
+      }
+      return bytes[pos++] & 0xFF;
+    }
+
+    @Unsigned long readUnsigned() {
+      int length = read();
+      if (length > Long.BYTES) {
+        throw malformed();
+      }
+      @Unsigned long value = 0;
+      for (int i = 0; i < length; i++) {
+        int b = read();
+        if (i == 0 && b == 0) {
+          throw malformed(); // Not the shortest encoding, so it wouldn't sort correctly
+        }
+        value = (value << 8) | b;
+      }
+      return value;
+    }
+
+    IllegalArgumentException malformed() {
+      return new IllegalArgumentException("Malformed semantic version encoding at byte " + (pos - 1 - start));
+    }
+  }
+}
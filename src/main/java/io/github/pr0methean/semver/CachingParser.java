@@ -0,0 +1,219 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An opt-in, thread-safe memoizing front end for {@link SemanticVersion#valueOf(String, boolean)}, for workloads that
+ * parse the same version strings over and over. Strict and lenient results are cached separately.
+ *
+ * <p>Each cache is split into independently locked segments. When a segment is full, it evicts using the CLOCK
+ * algorithm with small saturating frequency counters, so that strings parsed often survive a burst of one-off inputs.
+ * Invalid strings are never cached; they're re-parsed and rethrown every time.
+ */
+public final class CachingParser {
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_CAPACITY = 16;
+
+  /**
+   * Frequency counters saturate here, so that an entry stops accumulating credit once it's clearly hot.
+   */
+  private static final byte MAX_FREQUENCY = 3;
+
+  private final Segment[] strictSegments;
+  private final Segment[] lenientSegments;
+  private final int segmentMask;
+  private final int capacity;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param capacity the maximum number of versions to cache in each of strict and lenient mode
+   * @throws IllegalArgumentException if {@code capacity} isn't positive
+   */
+  public CachingParser(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+    }
+    this.capacity = capacity;
+    int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, capacity / MIN_SEGMENT_CAPACITY)));
+    segmentMask = segmentCount - 1;
+    strictSegments = new Segment[segmentCount];
+    lenientSegments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      // Spread the remainder over the first segments, so the capacities add up exactly
+      int segmentCapacity = capacity / segmentCount + ((i < capacity % segmentCount) ? 1 : 0);
+      strictSegments[i] = new Segment(segmentCapacity);
+      lenientSegments[i] = new Segment(segmentCapacity);
+    }
+  }
+
+  /**
+   * Equivalent to {@link SemanticVersion#valueOf(String)}, but returns a cached instance if {@code input} was parsed
+   * recently.
+   * @param input the string to convert
+   * @return the equivalent SemanticVersion instance
+   */
+  public SemanticVersion valueOf(String input) {
+    return valueOf(input, false);
+  }
+
+  /**
+   * Equivalent to {@link SemanticVersion#valueOf(String, boolean)}, but returns a cached instance if {@code input} was
+   * parsed recently in the same mode.
+   * @param input the string to convert
+   * @param lenient whether to allow the nonstandard variations listed at {@link SemanticVersion#valueOf(String,
+   *     boolean)}
+   * @return the equivalent SemanticVersion instance
+   */
+  public SemanticVersion valueOf(String input, boolean lenient) {
+    Segment segment = segmentFor(input, lenient);
+    @Nullable SemanticVersion cached = segment.get(input);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    SemanticVersion parsed = SemanticVersion.valueOf(input, lenient);
+    if (segment.put(input, parsed)) {
+      evictions.increment();
+    }
+    return parsed;
+  }
+
+  private Segment segmentFor(String input, boolean lenient) {
+    int hash = input.hashCode();
+    hash ^= hash >>> 16; // spread high bits, as HashMap does
+    return (lenient ? lenientSegments : strictSegments)[hash & segmentMask];
+  }
+
+  /**
+   * @return the maximum number of versions cached in each of strict and lenient mode
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the number of calls answered from the cache
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of calls that had to parse their input, including those where it was invalid
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of cached versions discarded to make room for new ones
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the number of versions currently cached, across both modes
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : strictSegments) {
+      size += segment.size();
+    }
+    for (Segment segment : lenientSegments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Discards all cached versions. Doesn't reset the counters.
+   */
+  public void clear() {
+    for (Segment segment : strictSegments) {
+      segment.clear();
+    }
+    for (Segment segment : lenientSegments) {
+      segment.clear();
+    }
+  }
+
+  private static final class Node {
+    final String key;
+    final SemanticVersion value;
+    byte frequency;
+
+    Node(String key, SemanticVersion value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class Segment {
+    private final HashMap<String, Node> map;
+    private final Node[] clock;
+    private int size;
+    private int hand;
+
+    Segment(int capacity) {
+      map = new HashMap<>((int) Math.ceil(capacity / 0.75));
+      clock = new Node[capacity];
+    }
+
+    @Nullable
+    synchronized SemanticVersion get(String key) {
+      Node node = map.get(key);
+      if (node == null) {
+        return null;
+      }
+      if (node.frequency < MAX_FREQUENCY) {
+        node.frequency++;
+      }
+      return node.value;
+    }
+
+    /**
+     * @return true if an existing entry was evicted to make room
+     */
+    synchronized boolean put(String key, SemanticVersion value) {
+      if (map.containsKey(key)) {
+        return false; // Another thread parsed the same string concurrently
+      }
+      Node node = new Node(key, value);
+      map.put(key, node);
+      if (size < clock.length) {
+        clock[size] = node;
+        size++;
+        return false;
+      }
+      while (true) {
+        Node candidate = clock[hand];
+        if (candidate.frequency == 0) {
+          map.remove(candidate.key);
+          clock[hand] = node;
+          hand = (hand + 1) % clock.length;
+          return true;
+        }
+        candidate.frequency--;
+        hand = (hand + 1) % clock.length;
+      }
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void clear() {
+      map.clear();
+      Arrays.fill(clock, null);
+      size = 0;
+      hand = 0;
+    }
+  }
+}
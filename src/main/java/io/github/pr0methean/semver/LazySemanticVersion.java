@@ -0,0 +1,246 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A SemanticVersion that keeps the string it was created from and only splits it into parts when they're first
+ * needed. The string is validated up front, without collecting the parts, so invalid input still fails fast. The
+ * major version can be read without a full parse, and {@link #toString()} returns the source string itself when it's
+ * already in canonical form. Behaves identically to the eagerly parsed equivalent, including its hash code.
+ */
+@SuppressWarnings("serial") // Serialized through writeReplace
+final class LazySemanticVersion implements SemanticVersion {
+  private final String source;
+  private final boolean lenient;
+
+  /**
+   * Whether {@link #source} is what {@code toString()} of the parsed version would return.
+   */
+  private final boolean canonical;
+
+  /**
+   * Racy single-check cache: parsing is deterministic and the result immutable, so at worst two threads both parse.
+   */
+  @Nullable private transient volatile SemanticVersion parsed;
+
+  LazySemanticVersion(String source, boolean lenient) {
+    SemanticVersionParser.validate(source, lenient);
+    this.source = source;
+    this.lenient = lenient;
+    canonical = (!lenient || SemanticVersionParser.isValid(source, false)) && !hasLeadingZero(source);
+  }
+
+  /**
+   * @return whether a numeric component or prerelease identifier of a strictly valid version has a leading zero,
+   *     which toString() would drop
+   */
+  private static boolean hasLeadingZero(String source) {
+    boolean atPartStart = true;
+    boolean inPrerelease = false;
+    for (int i = 0; i < source.length(); i++) {
+      char c = source.charAt(i);
+      if (c == '+') {
+        return false; // Build metadata is kept verbatim
+      }
+      if (atPartStart && c == '0' && i + 1 < source.length()) {
+        char next = source.charAt(i + 1);
+        if (next >= '0' && next <= '9') {
+          return true;
+        }
+      }
+      atPartStart = c == '.' || (c == '-' && !inPrerelease);
+      inPrerelease |= c == '-';
+    }
+    return false;
+  }
+
+  SemanticVersion parsed() {
+    SemanticVersion result = parsed;
+    if (result == null) {
+      result = SemanticVersionParser.parse(source, 0, source.length(), lenient);
+      parsed = result;
+    }
+    return result;
+  }
+
+  @Override
+  public long majorVersion() {
+    SemanticVersion result = parsed;
+    if (result != null) {
+      return result.majorVersion();
+    }
+    // Already validated, so the leading digits (if any, since a lenient version can start with a dot) fit
+    long major = 0;
+    for (int i = 0; i < source.length(); i++) {
+      char c = source.charAt(i);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      major = major * 10 + (c - '0');
+    }
+    return major;
+  }
+
+  @Override
+  public long minorVersion() {
+    return parsed().minorVersion();
+  }
+
+  @Override
+  public long patchVersion() {
+    return parsed().patchVersion();
+  }
+
+  @Override
+  public boolean isPrerelease() {
+    return parsed().isPrerelease();
+  }
+
+  @Nullable
+  @Override
+  public String buildMetadata() {
+    return parsed().buildMetadata();
+  }
+
+  @Nullable
+  @Override
+  public List<String> prereleaseVersion() {
+    return parsed().prereleaseVersion();
+  }
+
+  @Override
+  public int prereleaseIdentifierCount() {
+    return parsed().prereleaseIdentifierCount();
+  }
+
+  @Override
+  public String prereleaseIdentifierAt(int index) {
+    return parsed().prereleaseIdentifierAt(index);
+  }
+
+  @Override
+  public boolean isNumericIdentifier(int index) {
+    return parsed().isNumericIdentifier(index);
+  }
+
+  @Override
+  public long numericIdentifierAt(int index) {
+    return parsed().numericIdentifierAt(index);
+  }
+
+  @Override
+  public List<String> prereleaseIdentifiers() {
+    return parsed().prereleaseIdentifiers();
+  }
+
+  @Override
+  public long abbreviatedKey() {
+    return parsed().abbreviatedKey();
+  }
+
+  @Override
+  public int formattedLength() {
+    return canonical ? source.length() : parsed().formattedLength();
+  }
+
+  @Override
+  public StringBuilder formatTo(StringBuilder out) {
+    return canonical ? out.append(source) : parsed().formatTo(out);
+  }
+
+  @Override
+  public void formatTo(Appendable out) throws IOException {
+    if (canonical) {
+      out.append(source);
+    } else {
+      parsed().formatTo(out);
+    }
+  }
+
+  @Override
+  public int writeAscii(byte[] dest, int offset) {
+    return parsed().writeAscii(dest, offset);
+  }
+
+  @Override
+  public void writeAscii(ByteBuffer dest) {
+    parsed().writeAscii(dest);
+  }
+
+  @Override
+  public SemanticVersion clone() {
+    try {
+      return (SemanticVersion) super.clone(); // No mutable state besides the cache, so shallow copy is fine
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public SemanticVersion withBuildMetadata(@Nullable String buildMetadata, boolean lenient) {
+    return parsed().withBuildMetadata(buildMetadata, lenient);
+  }
+
+  @Override
+  public SemanticVersion prereleaseWithIdentifiers(List<String> identifiers) {
+    return parsed().prereleaseWithIdentifiers(identifiers);
+  }
+
+  @Override
+  public SemanticVersion releaseVersion() {
+    return parsed().releaseVersion();
+  }
+
+  @Override
+  public SemanticVersion nextMajorRelease() {
+    return parsed().nextMajorRelease();
+  }
+
+  @Override
+  public SemanticVersion nextMinorRelease() {
+    return parsed().nextMinorRelease();
+  }
+
+  @Override
+  public SemanticVersion nextPatchRelease() {
+    return parsed().nextPatchRelease();
+  }
+
+  @Override
+  public SemanticVersion nextPrereleaseBefore(@Nullable SemanticVersion nextRelease) {
+    return parsed().nextPrereleaseBefore(nextRelease);
+  }
+
+  @Serial
+  private Object writeReplace() {
+    return new SerializationProxy(parsed());
+  }
+
+  @Override
+  public String toString() {
+    return canonical ? source : parsed().toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof LazySemanticVersion that) {
+      if (lenient == that.lenient && source.equals(that.source)) {
+        return true;
+      }
+      o = that.parsed();
+    }
+    return parsed().equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return parsed().hashCode();
+  }
+}
@@ -0,0 +1,156 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Compact representation of a release version (no prerelease identifiers and no build metadata) whose major, minor
+ * and patch versions each fit in {@value #COMPONENT_BITS} bits. They're packed into a single long, most significant
+ * first, so that comparing two instances is a single comparison of their packed values. Behaves identically to a
+ * {@link SemanticVersionImpl} with the same parts, including its hash code.
+ */
+record PackedReleaseVersion(long packed) implements SemanticVersion {
+  static final int COMPONENT_BITS = 21;
+  private static final long COMPONENT_MASK = (1L << COMPONENT_BITS) - 1;
+  private static final int MAJOR_SHIFT = 2 * COMPONENT_BITS;
+  private static final int MINOR_SHIFT = COMPONENT_BITS;
+
+  PackedReleaseVersion(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion) {
+    this((majorVersion << MAJOR_SHIFT) | (minorVersion << MINOR_SHIFT) | patchVersion);
+  }
+
+  /**
+   * @return whether a version with these parts can be represented as a PackedReleaseVersion
+   */
+  static boolean fits(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion) {
+    return ((majorVersion | minorVersion | patchVersion) & ~COMPONENT_MASK) == 0;
+  }
+
+  @Override
+  public long majorVersion() {
+    return packed >>> MAJOR_SHIFT;
+  }
+
+  @Override
+  public long minorVersion() {
+    return (packed >>> MINOR_SHIFT) & COMPONENT_MASK;
+  }
+
+  @Override
+  public long patchVersion() {
+    return packed & COMPONENT_MASK;
+  }
+
+  @Override
+  public boolean isPrerelease() {
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public String buildMetadata() {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public List<String> prereleaseVersion() {
+    return null;
+  }
+
+  @Override
+  public int compareTo(@Nonnull SemanticVersion other) {
+    if (other instanceof PackedReleaseVersion otherPacked) {
+      return Long.compare(packed, otherPacked.packed); // Both non-negative, so signed comparison is fine
+    }
+    return SemanticVersion.super.compareTo(other);
+  }
+
+  @Serial
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  @Override
+  public SemanticVersion clone() {
+    try {
+      return (SemanticVersion) super.clone(); // No mutable state, so shallow copy is fine
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private SemanticVersionImpl unpacked() {
+    return new SemanticVersionImpl(majorVersion(), minorVersion(), patchVersion(), null, null);
+  }
+
+  @Override
+  public SemanticVersion withBuildMetadata(@Nullable String buildMetadata, boolean lenient) {
+    return unpacked().withBuildMetadata(buildMetadata, lenient);
+  }
+
+  @Override
+  public SemanticVersion prereleaseWithIdentifiers(@Nullable List<String> identifiers) {
+    if (identifiers == null || identifiers.isEmpty()) {
+      return this;
+    }
+    return unpacked().prereleaseWithIdentifiers(identifiers);
+  }
+
+  @Override
+  public SemanticVersion releaseVersion() {
+    return this;
+  }
+
+  @Override
+  public SemanticVersion nextMajorRelease() {
+    return SemanticVersionImpl.of(majorVersion() + 1, 0, 0, null, null);
+  }
+
+  @Override
+  public SemanticVersion nextMinorRelease() {
+    return SemanticVersionImpl.of(majorVersion(), minorVersion() + 1, 0, null, null);
+  }
+
+  @Override
+  public SemanticVersion nextPatchRelease() {
+    return SemanticVersionImpl.of(majorVersion(), minorVersion(), patchVersion() + 1, null, null);
+  }
+
+  @Override
+  public SemanticVersion nextPrereleaseBefore(@Nullable SemanticVersion nextRelease) {
+    return unpacked().nextPrereleaseBefore(nextRelease);
+  }
+
+  @Override
+  public String toString() {
+    return VersionFormatter.toString(this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof PackedReleaseVersion that) {
+      return packed == that.packed;
+    }
+    if (!(o instanceof SemanticVersion that)) {
+      return false;
+    }
+    return majorVersion() == that.majorVersion()
+        && minorVersion() == that.minorVersion()
+        && patchVersion() == that.patchVersion()
+        && !that.isPrerelease()
+        && that.buildMetadata() == null;
+  }
+
+  @Override
+  public int hashCode() {
+    return SemanticVersionImpl.hashCode(majorVersion(), minorVersion(), patchVersion(), null, null);
+  }
+}
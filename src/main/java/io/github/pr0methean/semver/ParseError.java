@@ -0,0 +1,68 @@
+package io.github.pr0methean.semver;
+
+/**
+ * The reason a string was rejected by {@link SemanticVersion#tryParse(CharSequence, boolean)}.
+ */
+public enum ParseError {
+  /**
+   * The version doesn't start with a major version, or (when lenient) a decimal point followed by a minor version.
+   */
+  MISSING_MAJOR_VERSION("must start with major version, or decimal point then minor version"),
+  /**
+   * The version doesn't have exactly a major, minor and patch version (strict mode only).
+   */
+  WRONG_COMPONENT_COUNT("must be major.minor.patch"),
+  /**
+   * Two consecutive dots appear between the major, minor and patch versions.
+   */
+  EMPTY_COMPONENT("empty version component"),
+  /**
+   * A major, minor or patch version contains something other than a decimal digit.
+   */
+  INVALID_COMPONENT_CHARACTER("invalid character in version component"),
+  /**
+   * A major, minor or patch version, or the numeric part of a prerelease identifier, is larger than an unsigned long.
+   */
+  NUMERIC_OVERFLOW("number is larger than an unsigned long"),
+  /**
+   * A prerelease identifier is empty (strict mode only).
+   */
+  EMPTY_PRERELEASE_IDENTIFIER("empty prerelease identifier"),
+  /**
+   * A prerelease identifier contains a character other than {@code [0-9A-Za-z-]}.
+   */
+  INVALID_PRERELEASE_CHARACTER("invalid character in prerelease identifier"),
+  /**
+   * Nothing follows the {@code +} that introduces the build metadata (strict mode only).
+   */
+  EMPTY_BUILD_METADATA("build metadata following + must be non-empty"),
+  /**
+   * The build metadata contains a character other than {@code [0-9A-Za-z-]} (strict mode only).
+   */
+  INVALID_BUILD_METADATA_CHARACTER("invalid character in build metadata");
+
+  private final String description;
+
+  ParseError(String description) {
+    this.description = description;
+  }
+
+  /**
+   * @return a human-readable description of this error, suitable for an exception message
+   */
+  public String description() {
+    return description;
+  }
+
+  /**
+   * @return whether {@link SemanticVersion#valueOf(String, boolean)} reports this error as a
+   *     {@link NumberFormatException} rather than a plain {@link IllegalArgumentException}. That includes an empty
+   *     major, minor or patch version, which is a number that didn't parse.
+   */
+  boolean isNumberFormatError() {
+    return switch (this) {
+      case MISSING_MAJOR_VERSION, EMPTY_COMPONENT, INVALID_COMPONENT_CHARACTER, NUMERIC_OVERFLOW -> true;
+      default -> false;
+    };
+  }
+}
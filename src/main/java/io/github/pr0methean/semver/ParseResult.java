@@ -0,0 +1,49 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * The outcome of {@link SemanticVersion#tryParse(CharSequence, boolean)}: either a parsed version, or the error that
+ * prevented parsing and the index where it was detected.
+ * @param version the parsed version, or null if parsing failed
+ * @param error the reason parsing failed, or null if it succeeded
+ * @param errorIndex the index into the input where the error was detected, or -1 if parsing succeeded
+ */
+public record ParseResult(@Nullable SemanticVersion version, @Nullable ParseError error, int errorIndex) {
+  public ParseResult {
+    if ((version == null) == (error == null)) {
+      throw new IllegalArgumentException("Exactly one of version and error must be non-null");
+    }
+  }
+
+  static ParseResult success(SemanticVersion version) {
+    return new ParseResult(version, null, -1);
+  }
+
+  static ParseResult failure(ParseError error, int errorIndex) {
+    return new ParseResult(null, error, errorIndex);
+  }
+
+  /**
+   * @return true if parsing succeeded
+   */
+  public boolean isSuccess() {
+    return version != null;
+  }
+
+  /**
+   * @return the parsed version
+   * @throws IllegalArgumentException if parsing failed, of the same type that
+   *     {@link SemanticVersion#valueOf(String, boolean)} would have thrown; the message gives the error and its index
+   *     but, unlike valueOf's, not the input, since this result doesn't keep a copy of it
+   */
+  public SemanticVersion orElseThrow() {
+    if (version != null) {
+      return version;
+    }
+    Objects.requireNonNull(error);
+    String message = "Invalid semantic version: " + error.description() + " at index " + errorIndex;
+    throw error.isNumberFormatError() ? new NumberFormatException(message) : new IllegalArgumentException(message);
+  }
+}
@@ -0,0 +1,1056 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * An immutable sorted map keyed by SemanticVersion, whose updates return a new map that shares all but O(log n) nodes
+ * with the old one. Since no instance ever changes, any number of threads can read a snapshot without locking while
+ * writers publish new versions of the map, e.g. through an {@link java.util.concurrent.atomic.AtomicReference}.
+ *
+ * <p>The map is a path-copying AVL tree ordered by {@link SemanticVersion#TOTAL_ORDERING} or
+ * {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}. As with {@link java.util.TreeMap}, replacing the value
+ * for a key that compares equal to an existing one keeps the existing key. Each node also records the greatest
+ * release version in its subtree, so {@link #latestRelease()} takes constant time and {@link #latestReleaseBefore}
+ * takes O(log n) time.
+ *
+ * <p>The map implements {@link NavigableMap}, and its sub-map, descending and key-set views share its tree rather than
+ * copying it. Like the map itself, they're read-only: {@code put}, {@code remove}, {@code pollFirstEntry} and the
+ * other mutators throw {@link UnsupportedOperationException}, and the entries they return don't support
+ * {@code setValue}.
+ *
+ * @param <V> the value type
+ */
+public final class PersistentVersionMap<V> extends AbstractMap<SemanticVersion, V>
+    implements NavigableMap<SemanticVersion, V> {
+  private static final PersistentVersionMap<?> EMPTY_TOTAL
+      = new PersistentVersionMap<>(SemanticVersion.TOTAL_ORDERING, null);
+  private static final PersistentVersionMap<?> EMPTY_BUILD_METADATA_AGNOSTIC
+      = new PersistentVersionMap<>(SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR, null);
+
+  private final Comparator<SemanticVersion> ordering;
+  @Nullable private final Node<V> root;
+
+  private PersistentVersionMap(Comparator<SemanticVersion> ordering, @Nullable Node<V> root) {
+    this.ordering = ordering;
+    this.root = root;
+  }
+
+  /**
+   * @param <V> the value type
+   * @return an empty map ordered by {@link SemanticVersion#TOTAL_ORDERING}
+   */
+  public static <V> PersistentVersionMap<V> empty() {
+    return empty(SemanticVersion.TOTAL_ORDERING);
+  }
+
+  /**
+   * @param ordering {@link SemanticVersion#TOTAL_ORDERING} or
+   *     {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @param <V> the value type
+   * @return an empty map with the given ordering
+   * @throws IllegalArgumentException if {@code ordering} isn't one of the two supported comparators
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentVersionMap<V> empty(Comparator<SemanticVersion> ordering) {
+    if (ordering == SemanticVersion.TOTAL_ORDERING) {
+      return (PersistentVersionMap<V>) EMPTY_TOTAL;
+    }
+    if (ordering == SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR) {
+      return (PersistentVersionMap<V>) EMPTY_BUILD_METADATA_AGNOSTIC;
+    }
+    throw new IllegalArgumentException("Unsupported ordering " + ordering);
+  }
+
+  /**
+   * @return the ordering of this map's keys, which is {@link SemanticVersion#TOTAL_ORDERING} or
+   *     {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   */
+  @Override
+  public Comparator<SemanticVersion> comparator() {
+    return ordering;
+  }
+
+  /**
+   * @param key the key to add or replace
+   * @param value the value to map it to
+   * @return a map with the same entries as this one, except that {@code key} maps to {@code value}
+   */
+  public PersistentVersionMap<V> with(SemanticVersion key, V value) {
+    Objects.requireNonNull(key);
+    Node<V> newRoot = insert(root, key, value);
+    return (newRoot == root) ? this : new PersistentVersionMap<>(ordering, newRoot);
+  }
+
+  /**
+   * @param key the key to remove
+   * @return a map with the same entries as this one, except for any whose key compares equal to {@code key}
+   */
+  public PersistentVersionMap<V> without(SemanticVersion key) {
+    Objects.requireNonNull(key);
+    Node<V> newRoot = remove(root, key);
+    return (newRoot == root) ? this : new PersistentVersionMap<>(ordering, newRoot);
+  }
+
+  @Override
+  public int size() {
+    return size(root);
+  }
+
+  @Nullable
+  @Override
+  public V get(Object key) {
+    @Nullable Node<V> node = find(key);
+    return (node == null) ? null : node.value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Nullable
+  private Node<V> find(Object key) {
+    if (!(key instanceof SemanticVersion version)) {
+      return null;
+    }
+    @Nullable Node<V> node = root;
+    while (node != null) {
+      int result = ordering.compare(version, node.key);
+      if (result == 0) {
+        return node;
+      }
+      node = (result < 0) ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * @return the entry with the greatest key that isn't a prerelease, or null if there is none
+   */
+  @Nullable
+  public Map.Entry<SemanticVersion, V> latestRelease() {
+    return (root == null) ? null : root.latestRelease;
+  }
+
+  /**
+   * @param key the key to search below
+   * @return the entry with the greatest key that is strictly less than {@code key} and isn't a prerelease, or null if
+   *     there is none
+   */
+  @Nullable
+  public Map.Entry<SemanticVersion, V> latestReleaseBefore(SemanticVersion key) {
+    @Nullable Node<V> best = null;
+    @Nullable Node<V> node = root;
+    while (node != null) {
+      if (ordering.compare(key, node.key) > 0) {
+        // This node and its left subtree precede the key, and any release found further right is greater
+        @Nullable Node<V> candidate = node.key.isPrerelease()
+            ? ((node.left == null) ? null : node.left.latestRelease) : node;
+        if (candidate != null) {
+          best = candidate;
+        }
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @param version a version whose major, minor and patch versions identify the release
+   * @return the entry with the greatest key that is a prerelease of that release, or null if there is none
+   */
+  @Nullable
+  public Map.Entry<SemanticVersion, V> latestPrereleaseOf(SemanticVersion version) {
+    // A release sorts after all its prereleases, and its build-metadata variants sort with or after it
+    SemanticVersion release = SemanticVersionImpl.of(version.majorVersion(), version.minorVersion(),
+        version.patchVersion(), null, null);
+    @Nullable Node<V> candidate = lowerNode(release, false);
+    if (candidate == null || !candidate.key.isPrerelease()
+        || candidate.key.majorVersion() != version.majorVersion()
+        || candidate.key.minorVersion() != version.minorVersion()
+        || candidate.key.patchVersion() != version.patchVersion()) {
+      return null;
+    }
+    return candidate;
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> firstEntry() {
+    return firstNode();
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> lastEntry() {
+    return lastNode();
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> lowerEntry(SemanticVersion key) {
+    return lowerNode(key, false);
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> floorEntry(SemanticVersion key) {
+    return lowerNode(key, true);
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> ceilingEntry(SemanticVersion key) {
+    return higherNode(key, true);
+  }
+
+  @Nullable
+  @Override
+  public Map.Entry<SemanticVersion, V> higherEntry(SemanticVersion key) {
+    return higherNode(key, false);
+  }
+
+  @Override
+  public SemanticVersion firstKey() {
+    return keyOrThrow(firstEntry());
+  }
+
+  @Override
+  public SemanticVersion lastKey() {
+    return keyOrThrow(lastEntry());
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion lowerKey(SemanticVersion key) {
+    return keyOrNull(lowerEntry(key));
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion floorKey(SemanticVersion key) {
+    return keyOrNull(floorEntry(key));
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion ceilingKey(SemanticVersion key) {
+    return keyOrNull(ceilingEntry(key));
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion higherKey(SemanticVersion key) {
+    return keyOrNull(higherEntry(key));
+  }
+
+  @Override
+  public Map.Entry<SemanticVersion, V> pollFirstEntry() {
+    throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+  }
+
+  @Override
+  public Map.Entry<SemanticVersion, V> pollLastEntry() {
+    throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+  }
+
+  @Override
+  public NavigableMap<SemanticVersion, V> descendingMap() {
+    return new SubMap(null, false, null, false, true);
+  }
+
+  @Override
+  public NavigableSet<SemanticVersion> navigableKeySet() {
+    return new KeySet(this);
+  }
+
+  @Override
+  public Set<SemanticVersion> keySet() {
+    return navigableKeySet();
+  }
+
+  @Override
+  public NavigableSet<SemanticVersion> descendingKeySet() {
+    return descendingMap().navigableKeySet();
+  }
+
+  @Override
+  public NavigableMap<SemanticVersion, V> subMap(SemanticVersion fromKey, boolean fromInclusive,
+      SemanticVersion toKey, boolean toInclusive) {
+    return new SubMap(Objects.requireNonNull(fromKey), fromInclusive, Objects.requireNonNull(toKey), toInclusive,
+        false);
+  }
+
+  @Override
+  public NavigableMap<SemanticVersion, V> headMap(SemanticVersion toKey, boolean inclusive) {
+    return new SubMap(null, false, Objects.requireNonNull(toKey), inclusive, false);
+  }
+
+  @Override
+  public NavigableMap<SemanticVersion, V> tailMap(SemanticVersion fromKey, boolean inclusive) {
+    return new SubMap(Objects.requireNonNull(fromKey), inclusive, null, false, false);
+  }
+
+  @Override
+  public SortedMap<SemanticVersion, V> subMap(SemanticVersion fromKey, SemanticVersion toKey) {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public SortedMap<SemanticVersion, V> headMap(SemanticVersion toKey) {
+    return headMap(toKey, false);
+  }
+
+  @Override
+  public SortedMap<SemanticVersion, V> tailMap(SemanticVersion fromKey) {
+    return tailMap(fromKey, true);
+  }
+
+  @Nullable
+  private static SemanticVersion keyOrNull(@Nullable Map.Entry<SemanticVersion, ?> entry) {
+    return (entry == null) ? null : entry.getKey();
+  }
+
+  private static SemanticVersion keyOrThrow(@Nullable Map.Entry<SemanticVersion, ?> entry) {
+    if (entry == null) {
+      throw new NoSuchElementException();
+    }
+    return entry.getKey();
+  }
+
+  @Nullable
+  private Node<V> firstNode() {
+    @Nullable Node<V> node = root;
+    while (node != null && node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  @Nullable
+  private Node<V> lastNode() {
+    @Nullable Node<V> node = root;
+    while (node != null && node.right != null) {
+      node = node.right;
+    }
+    return node;
+  }
+
+  @Nullable
+  private Node<V> lowerNode(SemanticVersion key, boolean inclusive) {
+    @Nullable Node<V> best = null;
+    @Nullable Node<V> node = root;
+    while (node != null) {
+      int result = ordering.compare(key, node.key);
+      if (result > 0 || (inclusive && result == 0)) {
+        best = node;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return best;
+  }
+
+  @Nullable
+  private Node<V> higherNode(SemanticVersion key, boolean inclusive) {
+    @Nullable Node<V> best = null;
+    @Nullable Node<V> node = root;
+    while (node != null) {
+      int result = ordering.compare(key, node.key);
+      if (result < 0 || (inclusive && result == 0)) {
+        best = node;
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return the number of keys less than {@code key}, or less than or equal to it if {@code inclusive}, found in
+   *     O(log n) time from the subtree sizes
+   */
+  private int countBelow(SemanticVersion key, boolean inclusive) {
+    int count = 0;
+    @Nullable Node<V> node = root;
+    while (node != null) {
+      int result = ordering.compare(key, node.key);
+      if (result > 0 || (inclusive && result == 0)) {
+        count += size(node.left) + 1;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public Set<Map.Entry<SemanticVersion, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<SemanticVersion, V>> iterator() {
+        return new EntryIterator<>(root, PersistentVersionMap.this.ordering, null, false, null, false, false);
+      }
+
+      @Override
+      public int size() {
+        return PersistentVersionMap.this.size();
+      }
+    };
+  }
+
+  /**
+   * A read-only view of the entries between two optional bounds, in ascending or descending order. The bounds are
+   * always in ascending terms: {@link #lo} is the least key the view can hold, even when it's descending.
+   */
+  private final class SubMap extends AbstractMap<SemanticVersion, V> implements NavigableMap<SemanticVersion, V> {
+    @Nullable private final SemanticVersion lo;
+    private final boolean loInclusive;
+    @Nullable private final SemanticVersion hi;
+    private final boolean hiInclusive;
+    private final boolean descending;
+
+    /**
+     * @param lo the lower bound, or null if unbounded below
+     * @param hi the upper bound, or null if unbounded above
+     */
+    SubMap(@Nullable SemanticVersion lo, boolean loInclusive, @Nullable SemanticVersion hi, boolean hiInclusive,
+        boolean descending) {
+      if (lo != null && hi != null && ordering.compare(lo, hi) > 0) {
+        throw new IllegalArgumentException("fromKey > toKey");
+      }
+      this.lo = lo;
+      this.loInclusive = loInclusive;
+      this.hi = hi;
+      this.hiInclusive = hiInclusive;
+      this.descending = descending;
+    }
+
+    private boolean tooLow(SemanticVersion key) {
+      if (lo == null) {
+        return false;
+      }
+      int result = ordering.compare(key, lo);
+      return result < 0 || (result == 0 && !loInclusive);
+    }
+
+    private boolean tooHigh(SemanticVersion key) {
+      if (hi == null) {
+        return false;
+      }
+      int result = ordering.compare(key, hi);
+      return result > 0 || (result == 0 && !hiInclusive);
+    }
+
+    private boolean inRange(SemanticVersion key) {
+      return !tooLow(key) && !tooHigh(key);
+    }
+
+    /**
+     * @return whether {@code key} can bound a view of this one; an exclusive bound may equal this view's own
+     */
+    private boolean inRange(SemanticVersion key, boolean inclusive) {
+      if (inclusive) {
+        return inRange(key);
+      }
+      return (lo == null || ordering.compare(key, lo) >= 0) && (hi == null || ordering.compare(key, hi) <= 0);
+    }
+
+    private SemanticVersion checkInRange(SemanticVersion key, boolean inclusive) {
+      if (!inRange(Objects.requireNonNull(key), inclusive)) {
+        throw new IllegalArgumentException("Key out of range: " + key);
+      }
+      return key;
+    }
+
+    @Nullable
+    private Node<V> lowest() {
+      @Nullable Node<V> node = (lo == null) ? firstNode() : higherNode(lo, loInclusive);
+      return (node == null || tooHigh(node.key)) ? null : node;
+    }
+
+    @Nullable
+    private Node<V> highest() {
+      @Nullable Node<V> node = (hi == null) ? lastNode() : lowerNode(hi, hiInclusive);
+      return (node == null || tooLow(node.key)) ? null : node;
+    }
+
+    /**
+     * @return the least entry in range that is above {@code key}, or equal to it if {@code inclusive}
+     */
+    @Nullable
+    private Node<V> above(SemanticVersion key, boolean inclusive) {
+      if (tooLow(key)) {
+        return lowest();
+      }
+      @Nullable Node<V> node = higherNode(key, inclusive);
+      return (node == null || tooHigh(node.key)) ? null : node;
+    }
+
+    /**
+     * @return the greatest entry in range that is below {@code key}, or equal to it if {@code inclusive}
+     */
+    @Nullable
+    private Node<V> below(SemanticVersion key, boolean inclusive) {
+      if (tooHigh(key)) {
+        return highest();
+      }
+      @Nullable Node<V> node = lowerNode(key, inclusive);
+      return (node == null || tooLow(node.key)) ? null : node;
+    }
+
+    @Override
+    public Comparator<SemanticVersion> comparator() {
+      return descending ? Collections.reverseOrder(ordering) : ordering;
+    }
+
+    @Override
+    public int size() {
+      int end = (hi == null) ? PersistentVersionMap.this.size() : countBelow(hi, hiInclusive);
+      int start = (lo == null) ? 0 : countBelow(lo, !loInclusive);
+      return Math.max(0, end - start);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return lowest() == null;
+    }
+
+    @Nullable
+    @Override
+    public V get(Object key) {
+      return (key instanceof SemanticVersion version && inRange(version)) ? PersistentVersionMap.this.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof SemanticVersion version && inRange(version)
+          && PersistentVersionMap.this.containsKey(key);
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> firstEntry() {
+      return descending ? highest() : lowest();
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> lastEntry() {
+      return descending ? lowest() : highest();
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> lowerEntry(SemanticVersion key) {
+      return descending ? above(key, false) : below(key, false);
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> floorEntry(SemanticVersion key) {
+      return descending ? above(key, true) : below(key, true);
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> ceilingEntry(SemanticVersion key) {
+      return descending ? below(key, true) : above(key, true);
+    }
+
+    @Nullable
+    @Override
+    public Map.Entry<SemanticVersion, V> higherEntry(SemanticVersion key) {
+      return descending ? below(key, false) : above(key, false);
+    }
+
+    @Override
+    public SemanticVersion firstKey() {
+      return keyOrThrow(firstEntry());
+    }
+
+    @Override
+    public SemanticVersion lastKey() {
+      return keyOrThrow(lastEntry());
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion lowerKey(SemanticVersion key) {
+      return keyOrNull(lowerEntry(key));
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion floorKey(SemanticVersion key) {
+      return keyOrNull(floorEntry(key));
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion ceilingKey(SemanticVersion key) {
+      return keyOrNull(ceilingEntry(key));
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion higherKey(SemanticVersion key) {
+      return keyOrNull(higherEntry(key));
+    }
+
+    @Override
+    public Map.Entry<SemanticVersion, V> pollFirstEntry() {
+      throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+    }
+
+    @Override
+    public Map.Entry<SemanticVersion, V> pollLastEntry() {
+      throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+    }
+
+    @Override
+    public NavigableMap<SemanticVersion, V> descendingMap() {
+      return new SubMap(lo, loInclusive, hi, hiInclusive, !descending);
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> navigableKeySet() {
+      return new KeySet(this);
+    }
+
+    @Override
+    public Set<SemanticVersion> keySet() {
+      return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> descendingKeySet() {
+      return descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMap<SemanticVersion, V> subMap(SemanticVersion fromKey, boolean fromInclusive,
+        SemanticVersion toKey, boolean toInclusive) {
+      checkInRange(fromKey, fromInclusive);
+      checkInRange(toKey, toInclusive);
+      return descending ? new SubMap(toKey, toInclusive, fromKey, fromInclusive, true)
+          : new SubMap(fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    @Override
+    public NavigableMap<SemanticVersion, V> headMap(SemanticVersion toKey, boolean inclusive) {
+      checkInRange(toKey, inclusive);
+      return descending ? new SubMap(toKey, inclusive, hi, hiInclusive, true)
+          : new SubMap(lo, loInclusive, toKey, inclusive, false);
+    }
+
+    @Override
+    public NavigableMap<SemanticVersion, V> tailMap(SemanticVersion fromKey, boolean inclusive) {
+      checkInRange(fromKey, inclusive);
+      return descending ? new SubMap(lo, loInclusive, fromKey, inclusive, true)
+          : new SubMap(fromKey, inclusive, hi, hiInclusive, false);
+    }
+
+    @Override
+    public SortedMap<SemanticVersion, V> subMap(SemanticVersion fromKey, SemanticVersion toKey) {
+      return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<SemanticVersion, V> headMap(SemanticVersion toKey) {
+      return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<SemanticVersion, V> tailMap(SemanticVersion fromKey) {
+      return tailMap(fromKey, true);
+    }
+
+    @Override
+    public Set<Map.Entry<SemanticVersion, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Map.Entry<SemanticVersion, V>> iterator() {
+          return descending
+              ? new EntryIterator<>(root, ordering, hi, hiInclusive, lo, loInclusive, true)
+              : new EntryIterator<>(root, ordering, lo, loInclusive, hi, hiInclusive, false);
+        }
+
+        @Override
+        public int size() {
+          return SubMap.this.size();
+        }
+      };
+    }
+  }
+
+  /**
+   * A read-only view of a map's keys, as a {@link NavigableSet}.
+   */
+  private static final class KeySet extends AbstractSet<SemanticVersion> implements NavigableSet<SemanticVersion> {
+    private final NavigableMap<SemanticVersion, ?> map;
+
+    KeySet(NavigableMap<SemanticVersion, ?> map) {
+      this.map = map;
+    }
+
+    @Override
+    public Iterator<SemanticVersion> iterator() {
+      Iterator<? extends Map.Entry<SemanticVersion, ?>> entries = map.entrySet().iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public SemanticVersion next() {
+          return entries.next().getKey();
+        }
+      };
+    }
+
+    @Override
+    public Iterator<SemanticVersion> descendingIterator() {
+      return descendingSet().iterator();
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return map.containsKey(o);
+    }
+
+    @Override
+    public Comparator<? super SemanticVersion> comparator() {
+      return map.comparator();
+    }
+
+    @Override
+    public SemanticVersion first() {
+      return map.firstKey();
+    }
+
+    @Override
+    public SemanticVersion last() {
+      return map.lastKey();
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion lower(SemanticVersion key) {
+      return map.lowerKey(key);
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion floor(SemanticVersion key) {
+      return map.floorKey(key);
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion ceiling(SemanticVersion key) {
+      return map.ceilingKey(key);
+    }
+
+    @Nullable
+    @Override
+    public SemanticVersion higher(SemanticVersion key) {
+      return map.higherKey(key);
+    }
+
+    @Override
+    public SemanticVersion pollFirst() {
+      throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+    }
+
+    @Override
+    public SemanticVersion pollLast() {
+      throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> descendingSet() {
+      return new KeySet(map.descendingMap());
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> subSet(SemanticVersion fromElement, boolean fromInclusive,
+        SemanticVersion toElement, boolean toInclusive) {
+      return new KeySet(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> headSet(SemanticVersion toElement, boolean inclusive) {
+      return new KeySet(map.headMap(toElement, inclusive));
+    }
+
+    @Override
+    public NavigableSet<SemanticVersion> tailSet(SemanticVersion fromElement, boolean inclusive) {
+      return new KeySet(map.tailMap(fromElement, inclusive));
+    }
+
+    @Override
+    public SortedSet<SemanticVersion> subSet(SemanticVersion fromElement, SemanticVersion toElement) {
+      return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<SemanticVersion> headSet(SemanticVersion toElement) {
+      return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<SemanticVersion> tailSet(SemanticVersion fromElement) {
+      return tailSet(fromElement, true);
+    }
+  }
+
+  /**
+   * An in-order walk over the entries from an optional start bound to an optional end bound, using a stack of the
+   * nodes whose entries are still to come, so that each step takes amortized constant time.
+   */
+  private static final class EntryIterator<V> implements Iterator<Map.Entry<SemanticVersion, V>> {
+    private final ArrayDeque<Node<V>> stack = new ArrayDeque<>();
+    private final Comparator<SemanticVersion> ordering;
+    @Nullable private final SemanticVersion start;
+    private final boolean startInclusive;
+    @Nullable private final SemanticVersion end;
+    private final boolean endInclusive;
+    private final boolean descending;
+
+    /**
+     * @param start the first key the walk may return, or null to start at the first entry
+     * @param end the last key the walk may return, or null to continue to the last entry
+     * @param descending whether to walk from the greatest key to the least
+     */
+    EntryIterator(@Nullable Node<V> root, Comparator<SemanticVersion> ordering, @Nullable SemanticVersion start,
+        boolean startInclusive, @Nullable SemanticVersion end, boolean endInclusive, boolean descending) {
+      this.ordering = ordering;
+      this.start = start;
+      this.startInclusive = startInclusive;
+      this.end = end;
+      this.endInclusive = endInclusive;
+      this.descending = descending;
+      pushSpine(root);
+    }
+
+    /**
+     * @return the comparison of {@code key} with {@code bound} in the direction of the walk
+     */
+    private int compareInWalkOrder(SemanticVersion key, SemanticVersion bound) {
+      int result = ordering.compare(key, bound);
+      return descending ? -result : result;
+    }
+
+    /**
+     * Pushes the nodes from {@code node} toward the start of the walk, skipping those before {@link #start}.
+     */
+    private void pushSpine(@Nullable Node<V> node) {
+      while (node != null) {
+        int result = (start == null) ? 1 : compareInWalkOrder(node.key, start);
+        if (result < 0 || (result == 0 && !startInclusive)) {
+          node = descending ? node.left : node.right;
+        } else {
+          stack.push(node);
+          node = descending ? node.right : node.left;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (stack.isEmpty()) {
+        return false;
+      }
+      if (end == null) {
+        return true;
+      }
+      int result = compareInWalkOrder(stack.peek().key, end);
+      return result < 0 || (result == 0 && endInclusive);
+    }
+
+    @Override
+    public Map.Entry<SemanticVersion, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Node<V> node = stack.pop();
+      pushSpine(descending ? node.left : node.right);
+      return node;
+    }
+  }
+
+  private Node<V> insert(@Nullable Node<V> node, SemanticVersion key, V value) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    int result = ordering.compare(key, node.key);
+    if (result < 0) {
+      Node<V> left = insert(node.left, key, value);
+      return (left == node.left) ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (result > 0) {
+      Node<V> right = insert(node.right, key, value);
+      return (right == node.right) ? node : balance(node.key, node.value, node.left, right);
+    }
+    return (value == node.value) ? node : new Node<>(node.key, value, node.left, node.right);
+  }
+
+  @Nullable
+  private Node<V> remove(@Nullable Node<V> node, SemanticVersion key) {
+    if (node == null) {
+      return null;
+    }
+    int result = ordering.compare(key, node.key);
+    if (result < 0) {
+      @Nullable Node<V> left = remove(node.left, key);
+      return (left == node.left) ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (result > 0) {
+      @Nullable Node<V> right = remove(node.right, key);
+      return (right == node.right) ? node : balance(node.key, node.value, node.left, right);
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node<V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+  }
+
+  @Nullable
+  private static <V> Node<V> removeFirst(Node<V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.key, node.value, removeFirst(node.left), node.right);
+  }
+
+  private static int height(@Nullable Node<?> node) {
+    return (node == null) ? 0 : node.height;
+  }
+
+  private static int size(@Nullable Node<?> node) {
+    return (node == null) ? 0 : node.size;
+  }
+
+  /**
+   * Creates a node with the given contents, rotating once or twice if the subtrees' heights differ by more than one.
+   */
+  private static <V> Node<V> balance(SemanticVersion key, V value, @Nullable Node<V> left, @Nullable Node<V> right) {
+    int leftHeight = height(left);
+    int rightHeight = height(right);
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+      }
+      Node<V> pivot = left.right;
+      return new Node<>(pivot.key, pivot.value, new Node<>(left.key, left.value, left.left, pivot.left),
+          new Node<>(key, value, pivot.right, right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+      }
+      Node<V> pivot = right.left;
+      return new Node<>(pivot.key, pivot.value, new Node<>(key, value, left, pivot.left),
+          new Node<>(right.key, right.value, pivot.right, right.right));
+    }
+    return new Node<>(key, value, left, right);
+  }
+
+  private static final class Node<V> implements Map.Entry<SemanticVersion, V> {
+    final SemanticVersion key;
+    final V value;
+    @Nullable final Node<V> left;
+    @Nullable final Node<V> right;
+    final int height;
+    final int size;
+
+    /**
+     * The node with the greatest release-version key in this subtree, or null if there is none.
+     */
+    @Nullable final Node<V> latestRelease;
+
+    Node(SemanticVersion key, V value, @Nullable Node<V> left, @Nullable Node<V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      height = Math.max(height(left), height(right)) + 1;
+      size = size(left) + size(right) + 1;
+      if (right != null && right.latestRelease != null) {
+        latestRelease = right.latestRelease;
+      } else if (!key.isPrerelease()) {
+        latestRelease = this;
+      } else {
+        latestRelease = (left == null) ? null : left.latestRelease;
+      }
+    }
+
+    @Override
+    public SemanticVersion getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException("PersistentVersionMap is immutable");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Map.Entry<?, ?> that && key.equals(that.getKey()) && Objects.equals(value, that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+}
@@ -2,6 +2,8 @@ package io.github.pr0methean.semver;
 
 import org.checkerframework.checker.signedness.qual.Unsigned;
 
+import javax.annotation.Nullable;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.OptionalLong;
@@ -10,11 +12,68 @@ import java.util.OptionalLong;
  * The &lt;pre-release identifier&gt; element of the BNF specification at
  * <a href="https://semver.org/#backusnaur-form-grammar-for-valid-semver-versions">semver.org</a>.
  */
-record PrereleaseIdentifier(boolean hasNumericPart, @Unsigned long numericPart, String suffix)
-    implements Comparable<PrereleaseIdentifier>, Serializable {
+@SuppressWarnings("serial") // Serialized through writeReplace
+final class PrereleaseIdentifier implements Comparable<PrereleaseIdentifier>, Serializable {
+  private final boolean hasNumericPart;
+  @Unsigned private final long numericPart;
+  private final String suffix;
+
+  /**
+   * The cached {@link #hashCode()}.
+   */
+  private final int hash;
+
+  PrereleaseIdentifier(boolean hasNumericPart, @Unsigned long numericPart, String suffix) {
+    this.hasNumericPart = hasNumericPart;
+    this.numericPart = numericPart;
+    this.suffix = suffix;
+    hash = computeHashCode();
+  }
 
   public static final PrereleaseIdentifier MIN_VALUE = new PrereleaseIdentifier(true, 0, "");
 
+  /**
+   * Shared instances of the purely numeric identifiers 0 through 15.
+   */
+  private static final PrereleaseIdentifier[] SMALL_NUMBERS = new PrereleaseIdentifier[16];
+
+  /**
+   * Shared instances of the alphanumeric identifiers most often seen in the wild.
+   */
+  private static final PrereleaseIdentifier[] COMMON_WORDS = {
+      new PrereleaseIdentifier(false, 0, "alpha"),
+      new PrereleaseIdentifier(false, 0, "beta"),
+      new PrereleaseIdentifier(false, 0, "rc"),
+      new PrereleaseIdentifier(false, 0, "RC"),
+      new PrereleaseIdentifier(false, 0, "SNAPSHOT"),
+      new PrereleaseIdentifier(false, 0, "snapshot"),
+      new PrereleaseIdentifier(false, 0, "dev"),
+      new PrereleaseIdentifier(false, 0, "pre"),
+      new PrereleaseIdentifier(false, 0, "preview"),
+      new PrereleaseIdentifier(false, 0, "canary"),
+      new PrereleaseIdentifier(false, 0, "nightly")
+  };
+
+  static {
+    SMALL_NUMBERS[0] = MIN_VALUE;
+    for (int i = 1; i < SMALL_NUMBERS.length; i++) {
+      SMALL_NUMBERS[i] = new PrereleaseIdentifier(true, i, "");
+    }
+  }
+
+  boolean hasNumericPart() {
+    return hasNumericPart;
+  }
+
+  @Unsigned
+  long numericPart() {
+    return numericPart;
+  }
+
+  String suffix() {
+    return suffix;
+  }
+
   @Override
   public int compareTo(PrereleaseIdentifier other) {
     if (hasNumericPart() && !other.hasNumericPart()) {
@@ -33,22 +92,221 @@ record PrereleaseIdentifier(boolean hasNumericPart, @Unsigned long numericPart,
     return suffix().compareTo(other.suffix());
   }
 
+  /**
+   * Equivalent to {@code compareTo(valueOf(other))}, but without creating the identifier or its suffix.
+   */
+  int compareTo(CharSequence other) {
+    int otherDigits = numericPrefixLength(other);
+    if (hasNumericPart != (otherDigits > 0)) {
+      return hasNumericPart ? -1 : 1; // Numeric comes first
+    }
+    if (hasNumericPart) {
+      int result = Long.compareUnsigned(numericPart, parseNumericPrefix(other, otherDigits));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return compareSuffixes(suffix, 0, other, otherDigits);
+  }
+
+  /**
+   * Equivalent to {@code valueOf(a).compareTo(valueOf(b))}, but without creating either identifier.
+   * @throws NumberFormatException if either numeric prefix is larger than an unsigned long
+   */
+  static int compare(CharSequence a, CharSequence b) {
+    int aDigits = numericPrefixLength(a);
+    int bDigits = numericPrefixLength(b);
+    if ((aDigits > 0) != (bDigits > 0)) {
+      return (aDigits > 0) ? -1 : 1; // Numeric comes first
+    }
+    if (aDigits > 0) {
+      int result = Long.compareUnsigned(parseNumericPrefix(a, aDigits), parseNumericPrefix(b, bDigits));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return compareSuffixes(a, aDigits, b, bDigits);
+  }
+
+  private static int numericPrefixLength(CharSequence input) {
+    int length = input.length();
+    int digits = 0;
+    while (digits < length) {
+      char c = input.charAt(digits);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      digits++;
+    }
+    return digits;
+  }
+
+  @Unsigned
+  private static long parseNumericPrefix(CharSequence input, int digits) {
+    @Unsigned long value = 0;
+    for (int i = 0; i < digits; i++) {
+      int digit = input.charAt(i) - '0';
+      if (!SemanticVersionParser.canAppendDigit(value, digit)) {
+        throw new NumberFormatException("Numeric part of prerelease identifier " + input
+            + " is larger than an unsigned long");
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /**
+   * Compares {@code a.subSequence(aStart, a.length())} with {@code b.subSequence(bStart, b.length())} as
+   * {@link String#compareTo} would.
+   */
+  private static int compareSuffixes(CharSequence a, int aStart, CharSequence b, int bStart) {
+    int aLength = a.length() - aStart;
+    int bLength = b.length() - bStart;
+    int commonLength = Math.min(aLength, bLength);
+    for (int i = 0; i < commonLength; i++) {
+      char aChar = a.charAt(aStart + i);
+      char bChar = b.charAt(bStart + i);
+      if (aChar != bChar) {
+        return aChar - bChar;
+      }
+    }
+    return aLength - bLength;
+  }
+
   public static PrereleaseIdentifier valueOf(String input) {
-    if (input.isEmpty()) {
+    return valueOf(input, 0, input.length());
+  }
+
+  /**
+   * Parses the identifier occupying {@code input.subSequence(start, end)}. The numeric prefix is accumulated in place,
+   * and the suffix reuses {@code input} or a shared instance when possible, so that no substring is created unless the
+   * identifier has both a numeric part and a suffix or is only part of {@code input}.
+   */
+  static PrereleaseIdentifier valueOf(CharSequence input, int start, int end) {
+    if (start >= end) {
       throw new IllegalArgumentException("Can't create an empty chunk");
     }
-    int[] numericPart = input.codePoints()
-        .peek(SemanticVersion::checkValidIdentifierCodePoint)
-        .takeWhile(x -> x >= '0' && x <= '9')
-        .toArray();
-    int numericLength = numericPart.length;
-    if (numericLength == 0) {
-      return new PrereleaseIdentifier(false, 0, input);
+    @Unsigned long numericPart = 0;
+    int pos = start;
+    while (pos < end) {
+      char c = input.charAt(pos);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      int digit = c - '0';
+      if (!SemanticVersionParser.canAppendDigit(numericPart, digit)) {
+        throw new NumberFormatException("Numeric part of prerelease identifier "
+            + input.subSequence(start, end) + " is larger than an unsigned long");
+      }
+      numericPart = numericPart * 10 + digit;
+      pos++;
+    }
+    for (int i = pos; i < end; i++) {
+      SemanticVersion.checkValidIdentifierCodePoint(input.charAt(i));
+    }
+    return of(input, start, pos, end, numericPart);
+  }
+
+  /**
+   * Creates an identifier from an already-validated range of {@code input}, returning a shared instance when the
+   * identifier is a small number or a common word.
+   * @param start the index of the first character
+   * @param suffixStart the index of the first non-digit character, or {@code end} if there is none
+   * @param end the index after the last character
+   * @param numericPart the value of the digits between {@code start} and {@code suffixStart}
+   */
+  static PrereleaseIdentifier of(CharSequence input, int start, int suffixStart, int end,
+      @Unsigned long numericPart) {
+    if (suffixStart == end) {
+      return ofNumeric(numericPart);
+    }
+    if (suffixStart == start) {
+      PrereleaseIdentifier common = commonWord(input, start, end);
+      return (common != null) ? common
+          : new PrereleaseIdentifier(false, 0, SemanticVersionParser.substring(input, start, end));
+    }
+    return new PrereleaseIdentifier(true, numericPart, SemanticVersionParser.substring(input, suffixStart, end));
+  }
+
+  /**
+   * @return an identifier consisting only of {@code value}'s digits, shared if {@code value} is small
+   */
+  static PrereleaseIdentifier ofNumeric(@Unsigned long value) {
+    return (value >= 0 && value < SMALL_NUMBERS.length) ? SMALL_NUMBERS[(int) value]
+        : new PrereleaseIdentifier(true, value, "");
+  }
+
+  @Nullable
+  private static PrereleaseIdentifier commonWord(CharSequence input, int start, int end) {
+    int length = end - start;
+    for (PrereleaseIdentifier candidate : COMMON_WORDS) {
+      String word = candidate.suffix;
+      if (word.length() == length && regionMatches(input, start, word)) {
+        return candidate;
+      }
     }
-    int[] suffixPart = input.codePoints().skip(numericLength).toArray();
-    return new PrereleaseIdentifier(true,
-        Long.parseUnsignedLong(new String(numericPart, 0, numericLength)),
-        new String(suffixPart, 0, suffixPart.length));
+    return null;
+  }
+
+  private static boolean regionMatches(CharSequence input, int start, String word) {
+    if (input instanceof String string) {
+      return string.startsWith(word, start);
+    }
+    for (int i = 0; i < word.length(); i++) {
+      if (input.charAt(start + i) != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if this identifier consists only of digits
+   */
+  boolean isNumeric() {
+    return hasNumericPart && suffix.isEmpty();
+  }
+
+  /**
+   * @return whether {@code input} is the string form of this identifier, determined without creating that string
+   */
+  boolean contentEquals(CharSequence input) {
+    int length = input.length();
+    @Unsigned long value = 0;
+    int pos = 0;
+    while (pos < length) {
+      char c = input.charAt(pos);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      int digit = c - '0';
+      if (!SemanticVersionParser.canAppendDigit(value, digit)) {
+        return false;
+      }
+      value = value * 10 + digit;
+      pos++;
+    }
+    if (hasNumericPart != (pos > 0) || value != numericPart || (pos > 1 && input.charAt(0) == '0')) {
+      return false; // toString() never has leading zeros
+    }
+    return suffix.length() == length - pos && regionMatches(input, pos, suffix);
+  }
+
+  /**
+   * @return a shared instance equal to this one if there is one, or else this instance
+   */
+  PrereleaseIdentifier canonical() {
+    if (!hasNumericPart) {
+      PrereleaseIdentifier common = commonWord(suffix, 0, suffix.length());
+      return (common != null) ? common : this;
+    }
+    return (suffix.isEmpty() && numericPart >= 0 && numericPart < SMALL_NUMBERS.length)
+        ? SMALL_NUMBERS[(int) numericPart] : this;
+  }
+
+  @Serial
+  private Object writeReplace() {
+    return new SerializationProxy(this);
   }
 
   @Override
@@ -68,7 +326,7 @@ record PrereleaseIdentifier(boolean hasNumericPart, @Unsigned long numericPart,
       return false;
     }
     PrereleaseIdentifier that = (PrereleaseIdentifier) o;
-    if (!Objects.equals(suffix, that.suffix) || hasNumericPart != that.hasNumericPart) {
+    if (hash != that.hash || !Objects.equals(suffix, that.suffix) || hasNumericPart != that.hasNumericPart) {
       return false;
     }
     return !hasNumericPart || numericPart == that.numericPart;
@@ -76,7 +334,14 @@ record PrereleaseIdentifier(boolean hasNumericPart, @Unsigned long numericPart,
 
   @Override
   public int hashCode() {
-    return Objects.hash(hasNumericPart ? numericPart : -1, suffix);
+    return hash;
+  }
+
+  /**
+   * Same value as {@code Objects.hash(hasNumericPart ? numericPart : -1, suffix)}, without the boxing.
+   */
+  private int computeHashCode() {
+    return 31 * (31 + Long.hashCode(hasNumericPart ? numericPart : -1)) + Objects.hashCode(suffix);
   }
 
   @Unsigned
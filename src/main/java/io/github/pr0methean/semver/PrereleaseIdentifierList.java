@@ -0,0 +1,26 @@
+package io.github.pr0methean.semver;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable view of a {@link SemanticVersionImpl}'s prerelease identifiers as strings. Each string is created on
+ * access, so only the identifiers actually read are converted.
+ */
+final class PrereleaseIdentifierList extends AbstractList<String> implements RandomAccess {
+  private final PrereleaseIdentifier[] identifiers;
+
+  PrereleaseIdentifierList(PrereleaseIdentifier[] identifiers) {
+    this.identifiers = identifiers;
+  }
+
+  @Override
+  public String get(int index) {
+    return identifiers[index].toString();
+  }
+
+  @Override
+  public int size() {
+    return identifiers.length;
+  }
+}
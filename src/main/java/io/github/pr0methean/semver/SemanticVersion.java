@@ -4,16 +4,15 @@ import org.checkerframework.checker.signedness.qual.Unsigned;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
-import static io.github.pr0methean.semver.SemanticVersionImpl.comparingUnsignedLong;
-import static io.github.pr0methean.semver.SemanticVersionImpl.parsePrereleaseVersion;
-import static java.util.Comparator.naturalOrder;
-import static java.util.Comparator.nullsFirst;
 
 /**
  * A semantic version as defined at <a href="https://semver.org/spec/v2.0.0.html">semver.org</a>.
@@ -33,17 +32,13 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
    * vice-versa). See {@link #TOTAL_ORDERING} for an ordering that distinguishes versions with different build metadata.
    */
   Comparator<SemanticVersion> BUILD_METADATA_AGNOSTIC_COMPARATOR
-          = comparingUnsignedLong(SemanticVersion::majorVersion)
-      .thenComparing(comparingUnsignedLong(SemanticVersion::minorVersion))
-      .thenComparing(comparingUnsignedLong(SemanticVersion::patchVersion))
-      .thenComparing(SemanticVersion::comparePrereleaseVersions);
+      = new SemanticVersionComparators.BuildMetadataAgnostic();
 
   /**
    * A nonstandard ordering that sorts first by the standard ordering, then by build metadata. If two SemanticVersion
    * instances are unequal, then one of them is greater according to this ordering.
    */
-  Comparator<SemanticVersion> TOTAL_ORDERING
-          = BUILD_METADATA_AGNOSTIC_COMPARATOR.thenComparing(SemanticVersion::buildMetadata, nullsFirst(naturalOrder()));
+  Comparator<SemanticVersion> TOTAL_ORDERING = new SemanticVersionComparators.Total();
 
   /**
    * Converts the given String to a SemanticVersion.
@@ -73,52 +68,162 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
    * @return the equivalent SemanticVersion instance
    */
   static SemanticVersion valueOf(String input, boolean lenient) {
-    String[] comparablePartAndBuildMetadata = input.split("\\+", 2);
-    @Nullable String buildMetadata = (comparablePartAndBuildMetadata.length >= 2)
-        ? comparablePartAndBuildMetadata[1] : null;
-    String[] mainAndPrerelease = comparablePartAndBuildMetadata[0].split("-", 2);
-    PrereleaseIdentifier[] prereleaseChunks = null;
-    if (mainAndPrerelease.length >= 2) {
-      prereleaseChunks = parsePrereleaseVersion(mainAndPrerelease[1], lenient);
-    }
-    String[] mainChunkStrings = mainAndPrerelease[0].split("\\.");
-    if (lenient) {
-      switch (mainChunkStrings.length) {
-        case 0:
-          throw new IllegalArgumentException("Must start with major version, or decimal point then minor version");
-        case 1:
-          if (mainChunkStrings[0].isEmpty()) {
-            throw new IllegalArgumentException("Must start with major version, or decimal point then minor version");
-          }
-          break;
-        default:
-          if (mainChunkStrings[0].isEmpty()) {
-            mainChunkStrings[0] = "0";
-          }
-      }
-    } else {
-      if (mainChunkStrings.length != 3) {
-        throw new IllegalArgumentException(input + " is an invalid semantic version: must be major.minor.patch");
-      }
-    }
-    long[] mainChunks = Arrays.stream(mainChunkStrings)
-        .mapToLong(Long::parseUnsignedLong)
-        .toArray();
-    long unsignedMajor = getOrZero(mainChunks, 0);
-    long unsignedMinor = getOrZero(mainChunks, 1);
-    long unsignedPatch = getOrZero(mainChunks, 2);
-    if (buildMetadata != null) {
-      if (buildMetadata.isEmpty()) {
-        if (lenient) {
-          buildMetadata = null;
-        } else {
-          throw new IllegalArgumentException("Build metadata following + must be non-empty");
-        }
-      } else if (!lenient) {
-        buildMetadata.codePoints().forEach(SemanticVersion::checkValidIdentifierCodePoint);
-      }
-    }
-    return new SemanticVersionImpl(unsignedMajor, unsignedMinor, unsignedPatch, prereleaseChunks, buildMetadata);
+    return SemanticVersionParser.parse(input, 0, input.length(), lenient);
+  }
+
+  /**
+   * Validates the given String as {@link #valueOf(String, boolean)} would, but defers splitting it into parts until
+   * they're first needed. Suited to versions that are mostly passed through unchanged or only checked for their major
+   * version: {@link #majorVersion()} doesn't need a full parse, and {@link #toString()} returns {@code input} itself
+   * when it's already in canonical form. The result is equal to, and hashes and sorts like, {@code valueOf(input,
+   * lenient)}.
+   * @param input the string to convert
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return a SemanticVersion backed by {@code input}
+   * @throws IllegalArgumentException if {@link #valueOf(String, boolean)} would throw it, including
+   *     NumberFormatException
+   */
+  static SemanticVersion lazyValueOf(String input, boolean lenient) {
+    return new LazySemanticVersion(input, lenient);
+  }
+
+  /**
+   * Converts the characters {@code input.subSequence(start, end)} to a SemanticVersion, without copying them first.
+   * @param input the characters to convert
+   * @param start the index of the first character of the version
+   * @param end the index after the last character of the version
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return the equivalent SemanticVersion instance
+   * @throws IndexOutOfBoundsException if the range isn't within {@code input}
+   */
+  static SemanticVersion valueOf(CharSequence input, int start, int end, boolean lenient) {
+    return SemanticVersionParser.parse(input, start, end, lenient);
+  }
+
+  /**
+   * Converts a slice of a char array to a SemanticVersion, without copying it first.
+   * @param input the array holding the version
+   * @param offset the index of the first character of the version
+   * @param length the number of characters in the version
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return the equivalent SemanticVersion instance
+   * @throws IndexOutOfBoundsException if the slice isn't within {@code input}
+   */
+  static SemanticVersion valueOf(char[] input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.length);
+    return SemanticVersionParser.parse(CharBuffer.wrap(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * Converts a slice of a byte array, holding one ASCII character per byte, to a SemanticVersion without decoding it
+   * first.
+   * @param input the array holding the version
+   * @param offset the index of the first byte of the version
+   * @param length the number of bytes in the version
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}; when
+   *     lenient, any non-ASCII bytes in the build metadata are decoded as ISO-8859-1
+   * @return the equivalent SemanticVersion instance
+   * @throws IndexOutOfBoundsException if the slice isn't within {@code input}
+   */
+  static SemanticVersion valueOf(byte[] input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.length);
+    return SemanticVersionParser.parse(AsciiCharSequence.of(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * Converts a slice of a buffer, holding one ASCII character per byte, to a SemanticVersion without decoding it
+   * first. The buffer is read with absolute indexing, so its position isn't used or changed.
+   * @param input the buffer holding the version
+   * @param offset the absolute index of the first byte of the version
+   * @param length the number of bytes in the version
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}; when
+   *     lenient, any non-ASCII bytes in the build metadata are decoded as ISO-8859-1
+   * @return the equivalent SemanticVersion instance
+   * @throws IndexOutOfBoundsException if the slice isn't below the buffer's limit
+   */
+  static SemanticVersion valueOf(ByteBuffer input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.limit());
+    return SemanticVersionParser.parse(AsciiCharSequence.of(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * Parses the given string as a SemanticVersion without throwing an exception if it's invalid. Accepts exactly the
+   * same inputs as {@link #valueOf(String)}.
+   * @param input the string to parse
+   * @return the parsed version, or the reason and position it couldn't be parsed
+   */
+  static ParseResult tryParse(CharSequence input) {
+    return tryParse(input, false);
+  }
+
+  /**
+   * Parses the given string as a SemanticVersion without throwing an exception if it's invalid. Accepts exactly the
+   * same inputs as {@link #valueOf(String, boolean)}.
+   * @param input the string to parse
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return the parsed version, or the reason and position it couldn't be parsed
+   */
+  static ParseResult tryParse(CharSequence input, boolean lenient) {
+    return SemanticVersionParser.tryParse(input, 0, input.length(), lenient);
+  }
+
+  /**
+   * Equivalent to {@link #valueOf(CharSequence, int, int, boolean)}, except that invalid input is reported in the
+   * result rather than by throwing. Error indexes are relative to the start of {@code input}, not of the range.
+   * @throws IndexOutOfBoundsException if the range isn't within {@code input}
+   */
+  static ParseResult tryParse(CharSequence input, int start, int end, boolean lenient) {
+    return SemanticVersionParser.tryParse(input, start, end, lenient);
+  }
+
+  /**
+   * Equivalent to {@link #valueOf(char[], int, int, boolean)}, except that invalid input is reported in the result
+   * rather than by throwing. Error indexes are relative to the start of {@code input}, not of the slice.
+   * @throws IndexOutOfBoundsException if the slice isn't within {@code input}
+   */
+  static ParseResult tryParse(char[] input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.length);
+    return SemanticVersionParser.tryParse(CharBuffer.wrap(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * Equivalent to {@link #valueOf(byte[], int, int, boolean)}, except that invalid input is reported in the result
+   * rather than by throwing. Error indexes are relative to the start of {@code input}, not of the slice.
+   * @throws IndexOutOfBoundsException if the slice isn't within {@code input}
+   */
+  static ParseResult tryParse(byte[] input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.length);
+    return SemanticVersionParser.tryParse(AsciiCharSequence.of(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * Equivalent to {@link #valueOf(ByteBuffer, int, int, boolean)}, except that invalid input is reported in the
+   * result rather than by throwing. Error indexes are absolute indexes into {@code input}.
+   * @throws IndexOutOfBoundsException if the slice isn't below the buffer's limit
+   */
+  static ParseResult tryParse(ByteBuffer input, int offset, int length, boolean lenient) {
+    Objects.checkFromIndexSize(offset, length, input.limit());
+    return SemanticVersionParser.tryParse(AsciiCharSequence.of(input), offset, offset + length, lenient);
+  }
+
+  /**
+   * @param input the string to parse
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return the equivalent SemanticVersion instance, or null if {@code input} isn't valid
+   */
+  @Nullable
+  static SemanticVersion parseOrNull(CharSequence input, boolean lenient) {
+    return SemanticVersionParser.parseOrNull(input, lenient);
+  }
+
+  /**
+   * Checks whether {@link #valueOf(String, boolean)} would accept the given string, without allocating anything.
+   * @param input the string to check
+   * @param lenient whether to allow the nonstandard variations listed at {@link #valueOf(String, boolean)}
+   * @return true if {@code input} is a valid semantic version
+   */
+  static boolean isValid(CharSequence input, boolean lenient) {
+    return SemanticVersionParser.isValid(input, lenient);
   }
 
   static SemanticVersion valueOf(@Unsigned long major, @Unsigned long minor, @Unsigned long patch,
@@ -128,14 +233,10 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
       prereleaseIdentifiersArray =
           prereleaseIdentifiers.stream().map(PrereleaseIdentifier::valueOf).toArray(PrereleaseIdentifier[]::new);
     }
-    return new SemanticVersionImpl(major, minor, patch, prereleaseIdentifiersArray,
+    return SemanticVersionImpl.of(major, minor, patch, prereleaseIdentifiersArray,
         ((buildMetadata != null && buildMetadata.isEmpty()) ? null : buildMetadata));
   }
 
-  private static long getOrZero(long[] array, int index) {
-    return (array.length > index) ? array[index] : 0;
-  }
-
   static void checkValidIdentifierCodePoint(int input) {
     if (input >= '0' && input <= '9'
         || input >= 'A' && input <= 'Z'
@@ -155,7 +256,69 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
   default int compareTo(@Nonnull SemanticVersion other) {
     // Comparable's Javadoc recommends that the natural ordering be a total ordering when possible.
     // This helps e.g. ensure O(log n) behavior on a treeified HashMap<SemanticVersion,?> bucket with adversarial input.
-    return TOTAL_ORDERING.compare(this, other);
+    return SemanticVersionComparators.compareTotal(this, other);
+  }
+
+  /**
+   * Returns an order-preserving 64-bit summary of this version's major, minor and patch versions and whether it's a
+   * prerelease: if {@code Long.compareUnsigned(a.abbreviatedKey(), b.abbreviatedKey()) < 0}, then {@code a} sorts
+   * before {@code b} under {@link #BUILD_METADATA_AGNOSTIC_COMPARATOR}. Equal keys don't imply equal versions. The
+   * built-in implementations compute this once, and the comparators use it to decide most comparisons with a single
+   * primitive comparison.
+   * @return the abbreviated sort key, to be compared as unsigned
+   */
+  default long abbreviatedKey() {
+    return SemanticVersionComparators.abbreviatedKey(majorVersion(), minorVersion(), patchVersion(), isPrerelease());
+  }
+
+  /**
+   * @return the length of {@link #toString()}, computed without building it
+   */
+  default int formattedLength() {
+    return VersionFormatter.length(this);
+  }
+
+  /**
+   * Appends the canonical string form of this version, the same as {@link #toString()} returns for the built-in
+   * implementations, without building intermediate Strings.
+   * @param out the builder to append to
+   * @return {@code out}
+   */
+  default StringBuilder formatTo(StringBuilder out) {
+    return VersionFormatter.formatTo(this, out);
+  }
+
+  /**
+   * Appends the canonical string form of this version, as {@link #formatTo(StringBuilder)} does.
+   * @param out the destination to append to
+   * @throws IOException if {@code out} throws one
+   */
+  default void formatTo(Appendable out) throws IOException {
+    VersionFormatter.formatTo(this, out);
+  }
+
+  /**
+   * Writes the canonical string form of this version as ASCII, one byte per character. Any build metadata characters
+   * that ASCII can't represent (which only lenient mode allows) are written as {@code '?'}.
+   * @param dest the array to write to
+   * @param offset the index to start writing at
+   * @return the index after the last byte written
+   * @throws IndexOutOfBoundsException if fewer than {@link #formattedLength()} bytes fit after {@code offset}, in
+   *     which case nothing is written
+   */
+  default int writeAscii(byte[] dest, int offset) {
+    return VersionFormatter.writeAscii(this, dest, offset);
+  }
+
+  /**
+   * Writes the canonical string form of this version as ASCII at the buffer's position, advancing it, as
+   * {@link #writeAscii(byte[], int)} does.
+   * @param dest the buffer to write to
+   * @throws java.nio.BufferOverflowException if fewer than {@link #formattedLength()} bytes remain, in which case
+   *     nothing is written
+   */
+  default void writeAscii(ByteBuffer dest) {
+    VersionFormatter.writeAscii(this, dest);
   }
 
   SemanticVersion clone();
@@ -183,36 +346,68 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
   @Nullable
   List<String> prereleaseVersion();
 
-  static int comparePrereleaseVersions(SemanticVersion v1, SemanticVersion v2) {
-    if (!v1.isPrerelease()) {
-      return v2.isPrerelease() ? 1 : 0; // Prereleases come first
-    }
-    if (!v2.isPrerelease()) {
-      return -1; // Prereleases come first
-    }
-    if (v1 instanceof SemanticVersionImpl impl1 && v2 instanceof SemanticVersionImpl impl2) {
-      return Arrays.compare(impl1.prereleaseVersionArray(), impl2.prereleaseVersionArray());
-    }
-    final Iterator<String> iterator1 = v1.prereleaseVersion().iterator();
-    final Iterator<String> iterator2 = v2.prereleaseVersion().iterator();
-    while (true) {
-      if (iterator1.hasNext()) {
-        if (iterator2.hasNext()) {
-          PrereleaseIdentifier prerel1 = PrereleaseIdentifier.valueOf(iterator1.next());
-          PrereleaseIdentifier prerel2 = PrereleaseIdentifier.valueOf(iterator2.next());
-          int comparison = prerel1.compareTo(prerel2);
-          if (comparison != 0) {
-            return comparison;
-          }
-        } else {
-          return 1; // Sort prerelease identifier lists lexicographically
-        }
-      } else if (iterator2.hasNext()) {
-        return -1; // Sort prerelease identifier lists lexicographically
-      } else {
-        return 0;
+  /**
+   * @return the number of prerelease identifiers, which is zero if and only if this isn't a prerelease
+   */
+  default int prereleaseIdentifierCount() {
+    @Nullable List<String> prereleaseVersion = prereleaseVersion();
+    return (prereleaseVersion == null) ? 0 : prereleaseVersion.size();
+  }
+
+  /**
+   * @param index the index of a prerelease identifier, from 0 to {@link #prereleaseIdentifierCount()} - 1
+   * @return that prerelease identifier
+   * @throws IndexOutOfBoundsException if there's no identifier at {@code index}
+   */
+  default String prereleaseIdentifierAt(int index) {
+    return prereleaseIdentifiers().get(index);
+  }
+
+  /**
+   * @param index the index of a prerelease identifier, from 0 to {@link #prereleaseIdentifierCount()} - 1
+   * @return true if that identifier consists only of digits, so that it's compared numerically
+   * @throws IndexOutOfBoundsException if there's no identifier at {@code index}
+   */
+  default boolean isNumericIdentifier(int index) {
+    String identifier = prereleaseIdentifierAt(index);
+    for (int i = 0; i < identifier.length(); i++) {
+      char c = identifier.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
       }
     }
+    return true;
+  }
+
+  /**
+   * @param index the index of a prerelease identifier, from 0 to {@link #prereleaseIdentifierCount()} - 1
+   * @return the value of that identifier, which must be {@link #isNumericIdentifier(int) numeric}
+   * @throws IndexOutOfBoundsException if there's no identifier at {@code index}
+   * @throws NumberFormatException if that identifier isn't numeric
+   */
+  @Unsigned
+  default long numericIdentifierAt(int index) {
+    return Long.parseUnsignedLong(prereleaseIdentifierAt(index));
+  }
+
+  /**
+   * Unlike {@link #prereleaseVersion()}, this doesn't copy the identifiers for the built-in implementations.
+   * @return an unmodifiable view of the prerelease identifiers, which is empty if this isn't a prerelease
+   */
+  default List<String> prereleaseIdentifiers() {
+    @Nullable List<String> prereleaseVersion = prereleaseVersion();
+    return (prereleaseVersion == null) ? List.of() : Collections.unmodifiableList(prereleaseVersion);
+  }
+
+  /**
+   * Compares the prerelease identifiers of two versions, sorting a release after all of its prereleases. Versions
+   * other than the built-in implementations are read through a single call to {@link #prereleaseIdentifiers()}, and
+   * their identifiers are compared in place without creating parsed copies. So an implementation that already holds
+   * its identifiers (e.g. from separate database columns) can override that method to return them without copying,
+   * and so make this, {@code compareTo}, {@code equals} and the comparators avoid building a new list.
+   */
+  static int comparePrereleaseVersions(SemanticVersion v1, SemanticVersion v2) {
+    return SemanticVersionComparators.comparePrereleaseVersions(v1, v2);
   }
 
   /**
@@ -275,4 +470,43 @@ public interface SemanticVersion extends Comparable<SemanticVersion>, Cloneable,
    *     and one is the other with ".0" appended
    */
   SemanticVersion nextPrereleaseBefore(@Nullable SemanticVersion nextRelease);
+
+  /**
+   * Returns the least version that sorts strictly after {@code version}. Under
+   * {@link #BUILD_METADATA_AGNOSTIC_COMPARATOR}, this is {@code version} with {@code .0} appended to its prerelease
+   * identifiers if it's a prerelease, or else the next patch version's {@code -0} prerelease (carrying into the minor
+   * and major versions on overflow); build metadata is dropped. Under {@link #TOTAL_ORDERING}, it's {@code version}
+   * with {@code -} appended to its build metadata, assuming all build metadata is strictly valid. With
+   * {@link #predecessor}, this lets a range such as "after X" be written as an inclusive bound, e.g. for
+   * {@link java.util.NavigableSet#subSet}.
+   *
+   * @param version the version to start from
+   * @param ordering {@link #TOTAL_ORDERING} or {@link #BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @return the immediate successor, or null if there is none (only for {@link #MAX_VALUE} without build metadata)
+   * @throws IllegalArgumentException if {@code ordering} isn't one of the two supported comparators
+   */
+  @Nullable
+  static SemanticVersion successor(SemanticVersion version, Comparator<SemanticVersion> ordering) {
+    return VersionNeighbors.isTotal(ordering) ? VersionNeighbors.totalSuccessor(version)
+        : VersionNeighbors.successor(version);
+  }
+
+  /**
+   * Returns the greatest version that sorts strictly before {@code version}, if there is one. Since prerelease and
+   * build-metadata identifiers can be arbitrarily long, most versions have infinitely many versions just before them
+   * and thus no predecessor. Under {@link #BUILD_METADATA_AGNOSTIC_COMPARATOR}, only prereleases whose last
+   * identifier is {@code 0} have one: the same prerelease without that identifier, or for {@code X.Y.Z-0}, the
+   * preceding release. Under {@link #TOTAL_ORDERING}, only versions whose build metadata ends with {@code -} have
+   * one.
+   *
+   * @param version the version to start from
+   * @param ordering {@link #TOTAL_ORDERING} or {@link #BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @return the immediate predecessor, or null if there is none
+   * @throws IllegalArgumentException if {@code ordering} isn't one of the two supported comparators
+   */
+  @Nullable
+  static SemanticVersion predecessor(SemanticVersion version, Comparator<SemanticVersion> ordering) {
+    return VersionNeighbors.isTotal(ordering) ? VersionNeighbors.totalPredecessor(version)
+        : VersionNeighbors.predecessor(version);
+  }
 }
@@ -0,0 +1,180 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hand-written implementations of {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR} and
+ * {@link SemanticVersion#TOTAL_ORDERING}. Each is its own final class, so call sites stay monomorphic, and both compare
+ * the built-in implementations through their fields rather than through accessor lambdas.
+ */
+final class SemanticVersionComparators {
+  /**
+   * Bits used to store the bit length (0 to 64) of each component in an abbreviated key.
+   */
+  private static final int LENGTH_BITS = 7;
+
+  private SemanticVersionComparators() {}
+
+  /**
+   * Computes an order-preserving 64-bit prefix of a version's sort key, in the spirit of database abbreviated keys.
+   * Each of the major, minor and patch versions is written as its bit length followed by its bits below the leading 1;
+   * this is a prefix code, so comparing the concatenation compares the components in order. A final bit is set for a
+   * release and clear for a prerelease. Whatever doesn't fit in 64 bits is cut off, so equal keys only mean the
+   * versions need a full comparison.
+   */
+  static long abbreviatedKey(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion,
+      boolean isPrerelease) {
+    long key = 0;
+    int used = 0;
+    for (int i = 0; i < 3; i++) {
+      long component = (i == 0) ? majorVersion : (i == 1) ? minorVersion : patchVersion;
+      int length = Long.SIZE - Long.numberOfLeadingZeros(component);
+      key = append(key, used, length, LENGTH_BITS);
+      used += LENGTH_BITS;
+      if (length > 1) {
+        key = append(key, used, component, length - 1);
+        used += length - 1;
+      }
+      if (used >= Long.SIZE) {
+        return key;
+      }
+    }
+    return append(key, used, isPrerelease ? 0 : 1, 1);
+  }
+
+  /**
+   * @return {@code key} with the low {@code bits} bits of {@code value} written after its first {@code used} bits,
+   *     cutting off whatever doesn't fit
+   */
+  private static long append(long key, int used, long value, int bits) {
+    if (used >= Long.SIZE) {
+      return key;
+    }
+    long masked = (bits == Long.SIZE) ? value : value & ((1L << bits) - 1);
+    int shift = Long.SIZE - used - bits;
+    return key | ((shift >= 0) ? masked << shift : masked >>> -shift);
+  }
+
+  static int compareIgnoringBuildMetadata(SemanticVersion v1, SemanticVersion v2) {
+    if (v1 == v2) {
+      return 0;
+    }
+    if (v1 instanceof LazySemanticVersion lazy1) {
+      v1 = lazy1.parsed();
+    }
+    if (v2 instanceof LazySemanticVersion lazy2) {
+      v2 = lazy2.parsed();
+    }
+    if (v1 instanceof PackedReleaseVersion packed1 && v2 instanceof PackedReleaseVersion packed2) {
+      return Long.compare(packed1.packed(), packed2.packed()); // Both non-negative
+    }
+    if (v1 instanceof SemanticVersionImpl impl1 && v2 instanceof SemanticVersionImpl impl2) {
+      int result = Long.compareUnsigned(impl1.abbreviatedKey(), impl2.abbreviatedKey());
+      if (result != 0) {
+        return result;
+      }
+    }
+    int result = Long.compareUnsigned(v1.majorVersion(), v2.majorVersion());
+    if (result != 0) {
+      return result;
+    }
+    result = Long.compareUnsigned(v1.minorVersion(), v2.minorVersion());
+    if (result != 0) {
+      return result;
+    }
+    result = Long.compareUnsigned(v1.patchVersion(), v2.patchVersion());
+    if (result != 0) {
+      return result;
+    }
+    return comparePrereleaseVersions(v1, v2);
+  }
+
+  static int comparePrereleaseVersions(SemanticVersion v1, SemanticVersion v2) {
+    if (v1 instanceof SemanticVersionImpl impl1 && v2 instanceof SemanticVersionImpl impl2) {
+      return comparePrereleaseArrays(impl1.prereleaseVersionArray(), impl2.prereleaseVersionArray());
+    }
+    if (!v1.isPrerelease()) {
+      return v2.isPrerelease() ? 1 : 0; // Prereleases come first
+    }
+    if (!v2.isPrerelease()) {
+      return -1; // Prereleases come first
+    }
+    // Other implementations are read through one prereleaseIdentifiers() call, since their default indexed accessors
+    // would each rebuild prereleaseVersion()
+    if (v1 instanceof SemanticVersionImpl impl1) {
+      return compareWithStrings(impl1.prereleaseVersionArray(), v2.prereleaseIdentifiers());
+    }
+    if (v2 instanceof SemanticVersionImpl impl2) {
+      return -compareWithStrings(impl2.prereleaseVersionArray(), v1.prereleaseIdentifiers());
+    }
+    List<String> identifiers1 = v1.prereleaseIdentifiers();
+    List<String> identifiers2 = v2.prereleaseIdentifiers();
+    for (int i = 0; i < identifiers1.size() && i < identifiers2.size(); i++) {
+      int result = PrereleaseIdentifier.compare(identifiers1.get(i), identifiers2.get(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    // Sort prerelease identifier lists lexicographically
+    return Integer.compare(identifiers1.size(), identifiers2.size());
+  }
+
+  /**
+   * Compares parsed prerelease identifiers with another version's identifier strings, without parsing those.
+   */
+  private static int compareWithStrings(PrereleaseIdentifier[] identifiers, List<String> strings) {
+    for (int i = 0; i < identifiers.length && i < strings.size(); i++) {
+      int result = identifiers[i].compareTo((CharSequence) strings.get(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(identifiers.length, strings.size());
+  }
+
+  /**
+   * Compares prerelease identifier arrays, where null (meaning a release version) sorts after any prerelease.
+   */
+  static int comparePrereleaseArrays(@Nullable PrereleaseIdentifier[] prerelease1,
+      @Nullable PrereleaseIdentifier[] prerelease2) {
+    if (prerelease1 == null) {
+      return (prerelease2 == null) ? 0 : 1; // Prereleases come first
+    }
+    if (prerelease2 == null) {
+      return -1; // Prereleases come first
+    }
+    return Arrays.compare(prerelease1, prerelease2);
+  }
+
+  static int compareTotal(SemanticVersion v1, SemanticVersion v2) {
+    int result = compareIgnoringBuildMetadata(v1, v2);
+    if (result != 0 || v1 == v2) {
+      return result;
+    }
+    @Nullable String buildMetadata1 = v1.buildMetadata();
+    @Nullable String buildMetadata2 = v2.buildMetadata();
+    if (buildMetadata1 == null) {
+      return (buildMetadata2 == null) ? 0 : -1;
+    }
+    return (buildMetadata2 == null) ? 1 : buildMetadata1.compareTo(buildMetadata2);
+  }
+
+  static final class BuildMetadataAgnostic implements Comparator<SemanticVersion> {
+    @Override
+    public int compare(SemanticVersion v1, SemanticVersion v2) {
+      return compareIgnoringBuildMetadata(v1, v2);
+    }
+  }
+
+  static final class Total implements Comparator<SemanticVersion> {
+    @Override
+    public int compare(SemanticVersion v1, SemanticVersion v2) {
+      return compareTotal(v1, v2);
+    }
+  }
+}
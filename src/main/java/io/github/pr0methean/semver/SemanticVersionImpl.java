@@ -1,45 +1,143 @@
 package io.github.pr0methean.semver;
 
 import javax.annotation.Nullable;
+import java.io.Serial;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.checkerframework.checker.signedness.qual.Unsigned;
 
-record SemanticVersionImpl(
-    @Unsigned long majorVersion,
-    @Unsigned long minorVersion,
-    @Unsigned long patchVersion,
-    @Nullable PrereleaseIdentifier[] prereleaseVersionArray,
-    @Nullable String buildMetadata)
-    implements SemanticVersion {
+/**
+ * General-purpose SemanticVersion implementation.
+ */
+@SuppressWarnings("serial") // Serialized through writeReplace
+final class SemanticVersionImpl implements SemanticVersion {
   public static final PrereleaseIdentifier FIRST_PRERELEASE = new PrereleaseIdentifier(true, 1, "");
   private static final PrereleaseIdentifier[] DEFAULT_FIRST_PRERELEASE_ARRAY
       = {FIRST_PRERELEASE};
   private static final PrereleaseIdentifier[] MIN_VALUE_PRERELEASE_ARRAY = {PrereleaseIdentifier.MIN_VALUE};
 
+  @Unsigned private final long majorVersion;
+  @Unsigned private final long minorVersion;
+  @Unsigned private final long patchVersion;
+  @Nullable private final PrereleaseIdentifier[] prereleaseVersionArray;
+  @Nullable private final String buildMetadata;
+
+  /**
+   * The cached {@link #hashCode()}.
+   */
+  private final int hash;
+
   /**
-   * Equivalent to {@code comparing(keyExtractor, UnsignedLongs::compare)} without the autoboxing.
+   * The cached {@link #abbreviatedKey()}. Transient because it's derived from the fields above, and this class is only
+   * serialized through {@link #writeReplace()}.
    */
-  static <T> Comparator<T> comparingUnsignedLong(ToLongFunction<? super T> keyExtractor) {
-    return (x, y) -> Long.compareUnsigned(keyExtractor.applyAsLong(x), keyExtractor.applyAsLong(y));
+  private final transient long abbreviatedKey;
+
+  /**
+   * The cached {@link #toString()}, or null until it's first needed. Written without synchronization: every thread
+   * that races to fill it computes an equal, safely published {@link String}, so at worst the work is repeated.
+   */
+  @Nullable private transient String string;
+
+  SemanticVersionImpl(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion,
+      @Nullable PrereleaseIdentifier[] prereleaseVersionArray, @Nullable String buildMetadata) {
+    this.majorVersion = majorVersion;
+    this.minorVersion = minorVersion;
+    this.patchVersion = patchVersion;
+    this.prereleaseVersionArray = prereleaseVersionArray;
+    this.buildMetadata = buildMetadata;
+    hash = computeHashCode();
+    abbreviatedKey = SemanticVersionComparators.abbreviatedKey(majorVersion, minorVersion, patchVersion,
+        prereleaseVersionArray != null);
   }
 
-  @Nullable
-  public static PrereleaseIdentifier[] parsePrereleaseVersion(String versionString, boolean lenient) {
-    Stream<String> prereleaseIdStrings = Arrays.stream(versionString.split("\\."));
-    if (lenient) {
-      prereleaseIdStrings = prereleaseIdStrings.filter(s -> !s.isEmpty());
+  /**
+   * Creates a version, using the compact {@link PackedReleaseVersion} representation when possible.
+   */
+  static SemanticVersion of(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion,
+      @Nullable PrereleaseIdentifier[] prereleaseVersionArray, @Nullable String buildMetadata) {
+    if (prereleaseVersionArray == null && buildMetadata == null
+        && PackedReleaseVersion.fits(majorVersion, minorVersion, patchVersion)) {
+      return new PackedReleaseVersion(majorVersion, minorVersion, patchVersion);
+    }
+    return new SemanticVersionImpl(majorVersion, minorVersion, patchVersion, prereleaseVersionArray, buildMetadata);
+  }
+
+  /**
+   * @return {@code version} if it's a SemanticVersionImpl, or else an equal SemanticVersionImpl
+   */
+  static SemanticVersionImpl copyOf(SemanticVersion version) {
+    if (version instanceof SemanticVersionImpl impl) {
+      return impl;
+    }
+    if (version instanceof LazySemanticVersion lazy && lazy.parsed() instanceof SemanticVersionImpl impl) {
+      return impl;
     }
-    PrereleaseIdentifier[] result = prereleaseIdStrings
-        .map(PrereleaseIdentifier::valueOf)
-        .toArray(PrereleaseIdentifier[]::new);
-    return (result.length == 0) ? null : result;
+    // One call, since a third-party implementation's default indexed accessors would each rebuild prereleaseVersion()
+    List<String> identifiers = version.prereleaseIdentifiers();
+    @Nullable PrereleaseIdentifier[] prereleaseVersionArray = identifiers.isEmpty() ? null
+        : identifiers.stream().map(PrereleaseIdentifier::valueOf).toArray(PrereleaseIdentifier[]::new);
+    return new SemanticVersionImpl(version.majorVersion(), version.minorVersion(), version.patchVersion(),
+        prereleaseVersionArray, version.buildMetadata());
+  }
+
+  /**
+   * Computes the hash code that every built-in implementation must return for the given parts, so that equal
+   * instances of different implementations hash alike. Matches what {@code Objects.hash} would return for the four
+   * scalar parts, combined with {@code Arrays.hashCode(prereleaseVersionArray)}.
+   */
+  static int hashCode(@Unsigned long majorVersion, @Unsigned long minorVersion, @Unsigned long patchVersion,
+      @Nullable PrereleaseIdentifier[] prereleaseVersionArray, @Nullable String buildMetadata) {
+    int result = 1;
+    result = 31 * result + Long.hashCode(majorVersion);
+    result = 31 * result + Long.hashCode(minorVersion);
+    result = 31 * result + Long.hashCode(patchVersion);
+    result = 31 * result + Objects.hashCode(buildMetadata);
+    return 31 * result + Arrays.hashCode(prereleaseVersionArray);
+  }
+
+  private int computeHashCode() {
+    return hashCode(majorVersion, minorVersion, patchVersion, prereleaseVersionArray, buildMetadata);
+  }
+
+  @Override
+  @Unsigned
+  public long majorVersion() {
+    return majorVersion;
+  }
+
+  @Override
+  @Unsigned
+  public long minorVersion() {
+    return minorVersion;
+  }
+
+  @Override
+  @Unsigned
+  public long patchVersion() {
+    return patchVersion;
+  }
+
+  /**
+   * @return the prerelease identifiers, or null if this isn't a prerelease; must not be modified
+   */
+  @Nullable
+  PrereleaseIdentifier[] prereleaseVersionArray() {
+    return prereleaseVersionArray;
+  }
+
+  @Nullable
+  @Override
+  public String buildMetadata() {
+    return buildMetadata;
+  }
+
+  @Override
+  public long abbreviatedKey() {
+    return abbreviatedKey;
   }
 
   @SuppressWarnings("ConstantConditions")
@@ -50,6 +148,27 @@ record SemanticVersionImpl(
     return prereleaseWithIdentifiers(prereleaseIdentifiers);
   }
 
+  /**
+   * @return an equal version whose prerelease identifiers are all canonical instances
+   */
+  SemanticVersionImpl withCanonicalIdentifiers() {
+    if (prereleaseVersionArray == null) {
+      return this;
+    }
+    @Nullable PrereleaseIdentifier[] canonical = null;
+    for (int i = 0; i < prereleaseVersionArray.length; i++) {
+      PrereleaseIdentifier interned = SemanticVersionInterner.intern(prereleaseVersionArray[i]);
+      if (interned != prereleaseVersionArray[i]) {
+        if (canonical == null) {
+          canonical = prereleaseVersionArray.clone();
+        }
+        canonical[i] = interned;
+      }
+    }
+    return (canonical == null) ? this
+        : new SemanticVersionImpl(majorVersion, minorVersion, patchVersion, canonical, buildMetadata);
+  }
+
   @Override
   public boolean isPrerelease() {
     return prereleaseVersionArray != null;
@@ -57,25 +176,17 @@ record SemanticVersionImpl(
 
   @Override
   public String toString() {
-    StringBuilder out = new StringBuilder(Long.toUnsignedString(majorVersion)).append('.')
-        .append(Long.toUnsignedString(minorVersion)).append('.')
-        .append(Long.toUnsignedString(patchVersion));
-    if (prereleaseVersionArray != null) {
-      out.append('-');
-      boolean first = true;
-      for (PrereleaseIdentifier chunk : prereleaseVersionArray) {
-        if (first) {
-          first = false;
-        } else {
-          out.append('.');
-        }
-        out.append(chunk);
-      }
-    }
-    if (buildMetadata != null) {
-      out.append('+').append(buildMetadata);
+    String result = string;
+    if (result == null) {
+      result = VersionFormatter.toString(this);
+      string = result;
     }
-    return out.toString();
+    return result;
+  }
+
+  @Serial
+  private Object writeReplace() {
+    return new SerializationProxy(this);
   }
 
   @Override
@@ -94,6 +205,40 @@ record SemanticVersionImpl(
         Arrays.stream(prereleaseVersionArray.clone()).map(PrereleaseIdentifier::toString).collect(Collectors.toList());
   }
 
+  @Override
+  public int prereleaseIdentifierCount() {
+    return prereleaseVersionArray == null ? 0 : prereleaseVersionArray.length;
+  }
+
+  @Override
+  public String prereleaseIdentifierAt(int index) {
+    return identifierAt(index).toString();
+  }
+
+  @Override
+  public boolean isNumericIdentifier(int index) {
+    return identifierAt(index).isNumeric();
+  }
+
+  @Override
+  public long numericIdentifierAt(int index) {
+    PrereleaseIdentifier identifier = identifierAt(index);
+    if (!identifier.isNumeric()) {
+      throw new NumberFormatException("Prerelease identifier " + identifier + " isn't numeric");
+    }
+    return identifier.numericPart();
+  }
+
+  @Override
+  public List<String> prereleaseIdentifiers() {
+    return prereleaseVersionArray == null ? List.of() : new PrereleaseIdentifierList(prereleaseVersionArray);
+  }
+
+  private PrereleaseIdentifier identifierAt(int index) {
+    Objects.checkIndex(index, prereleaseIdentifierCount());
+    return prereleaseVersionArray[index];
+  }
+
   @Override
   public SemanticVersion withBuildMetadata(@Nullable String buildMetadata, boolean lenient) {
     if (buildMetadata != null) {
@@ -106,8 +251,7 @@ record SemanticVersionImpl(
         buildMetadata = null;
       }
     }
-    return new SemanticVersionImpl(majorVersion, minorVersion,
-        patchVersion, prereleaseVersionArray, buildMetadata);
+    return of(majorVersion, minorVersion, patchVersion, prereleaseVersionArray, buildMetadata);
   }
 
   @Override
@@ -124,7 +268,7 @@ record SemanticVersionImpl(
     if (prereleaseVersionArray == null) {
       return this;
     }
-    return prereleaseWithIdentifiers((PrereleaseIdentifier[]) null);
+    return of(majorVersion, minorVersion, patchVersion, null, null);
   }
 
   @Override
@@ -135,8 +279,7 @@ record SemanticVersionImpl(
     if (majorVersion == SemanticVersion.UNSIGNED_MAX_VALUE) {
       throw new IllegalArgumentException("Major version would overflow a long treated as unsigned");
     }
-    return new SemanticVersionImpl(majorVersion + 1, 0, 0,
-        null, null);
+    return of(majorVersion + 1, 0, 0, null, null);
   }
 
   @Override
@@ -147,8 +290,7 @@ record SemanticVersionImpl(
     if (minorVersion == SemanticVersion.UNSIGNED_MAX_VALUE) {
       throw new IllegalArgumentException("Minor version would overflow a long treated as unsigned");
     }
-    return new SemanticVersionImpl(majorVersion, minorVersion + 1, 0,
-        null, null);
+    return of(majorVersion, minorVersion + 1, 0, null, null);
   }
 
   @Override
@@ -159,11 +301,10 @@ record SemanticVersionImpl(
     if (patchVersion == SemanticVersion.UNSIGNED_MAX_VALUE) {
       throw new IllegalArgumentException("Patch version would overflow a long treated as unsigned");
     }
-    return new SemanticVersionImpl(majorVersion, minorVersion,
-        patchVersion + 1, null, null);
+    return of(majorVersion, minorVersion, patchVersion + 1, null, null);
   }
 
-  private SemanticVersionImpl prereleaseWithIdentifiers(@Nullable PrereleaseIdentifier[] identifiers) {
+  private SemanticVersionImpl prereleaseWithIdentifiers(PrereleaseIdentifier[] identifiers) {
     return new SemanticVersionImpl(
         majorVersion,
         minorVersion,
@@ -184,9 +325,7 @@ record SemanticVersionImpl(
     } else if (BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(this, nextRelease) >= 0) {
       throw new IllegalArgumentException(this + " is equivalent to or ahead of " + nextRelease);
     }
-    SemanticVersionImpl nextReleaseImpl = (SemanticVersionImpl) ((nextRelease instanceof SemanticVersionImpl)
-        ? nextRelease
-        : SemanticVersion.valueOf(nextRelease.toString()));
+    SemanticVersionImpl nextReleaseImpl = copyOf(nextRelease);
     if (!releaseVersion().equals(nextReleaseImpl.releaseVersion())) {
       // Branch A: we're not a prerelease of nextReleaseImpl.releaseVersion()
       // Output an earlier prerelease of nextReleaseImpl.releaseVersion()
@@ -381,7 +520,8 @@ record SemanticVersionImpl(
       return false;
     }
     if (o instanceof SemanticVersionImpl thatImpl) {
-      return majorVersion == thatImpl.majorVersion &&
+      return hash == thatImpl.hash &&
+          majorVersion == thatImpl.majorVersion &&
           minorVersion == thatImpl.minorVersion &&
           patchVersion == thatImpl.patchVersion &&
           Arrays.equals(prereleaseVersionArray, thatImpl.prereleaseVersionArray) &&
@@ -390,15 +530,27 @@ record SemanticVersionImpl(
     return majorVersion == that.majorVersion() &&
         minorVersion == that.minorVersion() &&
         patchVersion == that.patchVersion() &&
-        Objects.equals(prereleaseVersion(), that.prereleaseVersion()) &&
+        prereleaseIdentifiersEqual(that) &&
         Objects.equals(buildMetadata, that.buildMetadata());
   }
 
+  private boolean prereleaseIdentifiersEqual(SemanticVersion that) {
+    // One call, since a third-party implementation's default indexed accessors would each rebuild prereleaseVersion()
+    List<String> theirs = that.prereleaseIdentifiers();
+    if (prereleaseIdentifierCount() != theirs.size()) {
+      return false;
+    }
+    for (int i = 0; i < theirs.size(); i++) {
+      if (!prereleaseVersionArray[i].contentEquals(theirs.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
   @Override
   public int hashCode () {
-    int result = Objects.hash(majorVersion, minorVersion, patchVersion,
-        buildMetadata);
-    result = 31 * result + Arrays.hashCode(prereleaseVersionArray);
-    return result;
+    return hash;
   }
 }
\ No newline at end of file
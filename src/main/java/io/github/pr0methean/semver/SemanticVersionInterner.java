@@ -0,0 +1,86 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Canonicalizes SemanticVersion instances, so that equal versions share one instance, one prerelease-identifier array
+ * and one copy of each identifier. Canonical instances are only weakly held, so they're released once nothing else
+ * refers to them. Common prerelease identifiers such as {@code alpha}, {@code rc} and small numbers are shared even
+ * without interning.
+ */
+public final class SemanticVersionInterner {
+  private static final int STRIPES = 16;
+
+  private static final WeakInterner<SemanticVersion> VERSIONS = new WeakInterner<>();
+  private static final WeakInterner<PrereleaseIdentifier> IDENTIFIERS = new WeakInterner<>();
+
+  private SemanticVersionInterner() {}
+
+  /**
+   * @param version the version to canonicalize
+   * @return the canonical instance equal to {@code version}; this will be {@code version} itself if no equal version
+   *     is currently interned and {@code version} is a built-in implementation whose identifiers are already canonical
+   */
+  public static SemanticVersion intern(SemanticVersion version) {
+    if (version instanceof PackedReleaseVersion) {
+      return VERSIONS.intern(version);
+    }
+    SemanticVersion builtIn = (version instanceof SemanticVersionImpl) ? version
+        : SemanticVersion.valueOf(version.majorVersion(), version.minorVersion(), version.patchVersion(),
+            version.prereleaseVersion(), version.buildMetadata());
+    @Nullable SemanticVersion existing = VERSIONS.get(builtIn);
+    if (existing != null) {
+      return existing;
+    }
+    return VERSIONS.intern((builtIn instanceof SemanticVersionImpl impl) ? impl.withCanonicalIdentifiers() : builtIn);
+  }
+
+  static PrereleaseIdentifier intern(PrereleaseIdentifier identifier) {
+    PrereleaseIdentifier common = identifier.canonical();
+    return (common != identifier) ? common : IDENTIFIERS.intern(identifier);
+  }
+
+  /**
+   * A lock-striped set of weakly held canonical instances.
+   */
+  private static final class WeakInterner<T> {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final WeakHashMap<T, WeakReference<T>>[] stripes = new WeakHashMap[STRIPES];
+
+    WeakInterner() {
+      for (int i = 0; i < STRIPES; i++) {
+        stripes[i] = new WeakHashMap<>();
+      }
+    }
+
+    private WeakHashMap<T, WeakReference<T>> stripeFor(T value) {
+      int hash = value.hashCode();
+      hash ^= hash >>> 16; // spread high bits, as HashMap does
+      return stripes[hash & (STRIPES - 1)];
+    }
+
+    @Nullable
+    T get(T value) {
+      WeakHashMap<T, WeakReference<T>> stripe = stripeFor(value);
+      synchronized (stripe) {
+        WeakReference<T> ref = stripe.get(value);
+        return (ref == null) ? null : ref.get();
+      }
+    }
+
+    T intern(T value) {
+      WeakHashMap<T, WeakReference<T>> stripe = stripeFor(value);
+      synchronized (stripe) {
+        WeakReference<T> ref = stripe.get(value);
+        @Nullable T existing = (ref == null) ? null : ref.get();
+        if (existing != null) {
+          return existing;
+        }
+        stripe.put(value, new WeakReference<>(value));
+        return value;
+      }
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Hand-written scanner behind {@link SemanticVersion#valueOf(String, boolean)}. Validates and splits the major, minor
+ * and patch versions, the prerelease identifiers and the build metadata in a single left-to-right pass, without
+ * regular expressions or streams.
+ *
+ * <p>The scan reports failure as a packed {@code long} status rather than by throwing, so that
+ * {@link SemanticVersion#tryParse(CharSequence, boolean)} and {@link SemanticVersion#isValid(CharSequence, boolean)}
+ * never pay for a stack trace. When no instance is supplied to collect the parts, the scan allocates nothing.
+ */
+final class SemanticVersionParser {
+  /**
+   * {@code UNSIGNED_MAX_VALUE / 10}, treating both as unsigned. A value above this can't take another digit.
+   */
+  @Unsigned
+  private static final long MAX_VALUE_DIV_10 = Long.divideUnsigned(SemanticVersion.UNSIGNED_MAX_VALUE, 10);
+
+  /**
+   * {@code UNSIGNED_MAX_VALUE % 10}: the largest digit that can follow {@link #MAX_VALUE_DIV_10}.
+   */
+  private static final int MAX_VALUE_LAST_DIGIT = (int) Long.remainderUnsigned(SemanticVersion.UNSIGNED_MAX_VALUE, 10);
+
+  private static final int INITIAL_PRERELEASE_CAPACITY = 4;
+
+  /**
+   * Status returned by {@link #scan} on success. Failures pack the error index into the upper 32 bits and the
+   * {@link ParseError} ordinal into the lower 32.
+   */
+  static final long SUCCESS = -1;
+
+  private static final ParseError[] ERRORS = ParseError.values();
+
+  @Unsigned private long major;
+  @Unsigned private long minor;
+  @Unsigned private long patch;
+  @Nullable private PrereleaseIdentifier[] prereleaseIdentifiers;
+  private int prereleaseCount;
+  @Nullable private String buildMetadata;
+
+  private SemanticVersionParser() {}
+
+  static SemanticVersion parse(CharSequence input, int start, int end, boolean lenient) {
+    Objects.checkFromToIndex(start, end, input.length());
+    SemanticVersionParser parts = new SemanticVersionParser();
+    long status = scan(input, start, end, lenient, parts);
+    if (status != SUCCESS) {
+      throw invalid(input, start, end, status);
+    }
+    return parts.toSemanticVersion();
+  }
+
+  /**
+   * Checks {@code input} as {@link #parse} would, but without collecting its parts.
+   */
+  static void validate(CharSequence input, boolean lenient) {
+    long status = scan(input, 0, input.length(), lenient, null);
+    if (status != SUCCESS) {
+      throw invalid(input, 0, input.length(), status);
+    }
+  }
+
+  private static IllegalArgumentException invalid(CharSequence input, int start, int end, long status) {
+    ParseError error = error(status);
+    String message = input.subSequence(start, end) + " is an invalid semantic version: " + error.description()
+        + " at index " + errorIndex(status);
+    return error.isNumberFormatError() ? new NumberFormatException(message) : new IllegalArgumentException(message);
+  }
+
+  static ParseResult tryParse(CharSequence input, int start, int end, boolean lenient) {
+    Objects.checkFromToIndex(start, end, input.length());
+    SemanticVersionParser parts = new SemanticVersionParser();
+    long status = scan(input, start, end, lenient, parts);
+    return (status == SUCCESS) ? ParseResult.success(parts.toSemanticVersion())
+        : ParseResult.failure(error(status), errorIndex(status));
+  }
+
+  @Nullable
+  static SemanticVersion parseOrNull(CharSequence input, boolean lenient) {
+    SemanticVersionParser parts = new SemanticVersionParser();
+    return (scan(input, 0, input.length(), lenient, parts) == SUCCESS) ? parts.toSemanticVersion() : null;
+  }
+
+  static boolean isValid(CharSequence input, boolean lenient) {
+    return scan(input, 0, input.length(), lenient, null) == SUCCESS;
+  }
+
+  static ParseError error(long status) {
+    return ERRORS[(int) status];
+  }
+
+  static int errorIndex(long status) {
+    return (int) (status >>> 32);
+  }
+
+  private static long failure(ParseError error, int index) {
+    return ((long) index << 32) | error.ordinal();
+  }
+
+  private SemanticVersion toSemanticVersion() {
+    @Nullable PrereleaseIdentifier[] identifiers = null;
+    if (prereleaseCount != 0) {
+      identifiers = (prereleaseCount == prereleaseIdentifiers.length) ? prereleaseIdentifiers
+          : Arrays.copyOf(prereleaseIdentifiers, prereleaseCount);
+    }
+    return SemanticVersionImpl.of(major, minor, patch, identifiers, buildMetadata);
+  }
+
+  private void addPrereleaseIdentifier(PrereleaseIdentifier identifier) {
+    if (prereleaseIdentifiers == null) {
+      prereleaseIdentifiers = new PrereleaseIdentifier[INITIAL_PRERELEASE_CAPACITY];
+    } else if (prereleaseCount == prereleaseIdentifiers.length) {
+      prereleaseIdentifiers = Arrays.copyOf(prereleaseIdentifiers, prereleaseCount * 2);
+    }
+    prereleaseIdentifiers[prereleaseCount] = identifier;
+    prereleaseCount++;
+  }
+
+  /**
+   * Scans {@code input.subSequence(start, end)} as a semantic version.
+   * @param out receives the parsed parts, or null to only validate
+   * @return {@link #SUCCESS}, or a packed failure whose index is relative to the start of {@code input}
+   */
+  static long scan(CharSequence input, int start, int end, boolean lenient, @Nullable SemanticVersionParser out) {
+    int pos = start;
+
+    // Major, minor and patch versions: dot-separated digit runs ending at the first '-' or '+'
+    int componentIndex = 0;
+    boolean sawNonEmptyComponent = false;
+    while (true) {
+      final int componentStart = pos;
+      @Unsigned long value = 0;
+      char c = 0;
+      while (pos < end) {
+        c = input.charAt(pos);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        int digit = c - '0';
+        if (!canAppendDigit(value, digit)) {
+          return failure(ParseError.NUMERIC_OVERFLOW, componentStart);
+        }
+        value = value * 10 + digit;
+        pos++;
+      }
+      final boolean atMainEnd = pos >= end || c == '-' || c == '+';
+      if (!atMainEnd && c != '.') {
+        return failure(ParseError.INVALID_COMPONENT_CHARACTER, pos);
+      }
+      if (pos == componentStart) {
+        if (!lenient) {
+          return failure((componentIndex == 0) ? ParseError.MISSING_MAJOR_VERSION : ParseError.EMPTY_COMPONENT, pos);
+        }
+        // Leniently, a leading dot means a major version of zero, and trailing dots are ignored
+        if (componentIndex != 0 || atMainEnd) {
+          int trailingDotsEnd = pos;
+          while (trailingDotsEnd < end && input.charAt(trailingDotsEnd) == '.') {
+            trailingDotsEnd++;
+          }
+          if (trailingDotsEnd < end && input.charAt(trailingDotsEnd) != '-'
+              && input.charAt(trailingDotsEnd) != '+') {
+            return failure(ParseError.EMPTY_COMPONENT, pos);
+          }
+          if (!sawNonEmptyComponent) {
+            return failure(ParseError.MISSING_MAJOR_VERSION, start);
+          }
+          pos = trailingDotsEnd;
+          break;
+        }
+      } else {
+        sawNonEmptyComponent = true;
+      }
+      if (componentIndex >= 3 && !lenient) {
+        return failure(ParseError.WRONG_COMPONENT_COUNT, componentStart);
+      }
+      if (out != null) {
+        // Leniently, components after the patch version are validated but otherwise ignored
+        switch (componentIndex) {
+          case 0 -> out.major = value;
+          case 1 -> out.minor = value;
+          case 2 -> out.patch = value;
+          default -> { }
+        }
+      }
+      componentIndex++;
+      if (atMainEnd) {
+        break;
+      }
+      pos++; // skip '.'
+    }
+    if (!lenient && componentIndex != 3) {
+      return failure(ParseError.WRONG_COMPONENT_COUNT, pos);
+    }
+
+    // Prerelease identifiers: dot-separated, from the first '-' up to the first '+'
+    if (pos < end && input.charAt(pos) == '-') {
+      pos++;
+      while (true) {
+        final int identifierStart = pos;
+        @Unsigned long numericPart = 0;
+        while (pos < end) {
+          char c = input.charAt(pos);
+          if (c < '0' || c > '9') {
+            break;
+          }
+          int digit = c - '0';
+          if (!canAppendDigit(numericPart, digit)) {
+            return failure(ParseError.NUMERIC_OVERFLOW, identifierStart);
+          }
+          numericPart = numericPart * 10 + digit;
+          pos++;
+        }
+        final int suffixStart = pos;
+        while (pos < end) {
+          char c = input.charAt(pos);
+          if (c == '.' || c == '+') {
+            break;
+          }
+          if (!isValidIdentifierChar(c)) {
+            return failure(ParseError.INVALID_PRERELEASE_CHARACTER, pos);
+          }
+          pos++;
+        }
+        if (pos == identifierStart) {
+          if (!lenient) {
+            return failure(ParseError.EMPTY_PRERELEASE_IDENTIFIER, pos);
+          }
+        } else if (out != null) {
+          out.addPrereleaseIdentifier(PrereleaseIdentifier.of(input, identifierStart, suffixStart, pos, numericPart));
+        }
+        if (pos >= end || input.charAt(pos) == '+') {
+          break;
+        }
+        pos++; // skip '.'
+      }
+    }
+
+    // Build metadata: everything after the first '+'
+    if (pos < end) {
+      pos++; // skip '+'
+      if (pos == end) {
+        if (!lenient) {
+          return failure(ParseError.EMPTY_BUILD_METADATA, pos);
+        }
+      } else {
+        if (!lenient) {
+          for (int i = pos; i < end; i++) {
+            if (!isValidIdentifierChar(input.charAt(i))) {
+              return failure(ParseError.INVALID_BUILD_METADATA_CHARACTER, i);
+            }
+          }
+        }
+        if (out != null) {
+          out.buildMetadata = substring(input, pos, end);
+        }
+      }
+    }
+    return SUCCESS;
+  }
+
+  /**
+   * @param value the value accumulated so far, treated as unsigned
+   * @param digit the next decimal digit
+   * @return whether {@code value * 10 + digit} fits in an unsigned long
+   */
+  static boolean canAppendDigit(@Unsigned long value, int digit) {
+    return Long.compareUnsigned(value, MAX_VALUE_DIV_10) < 0
+        || (value == MAX_VALUE_DIV_10 && digit <= MAX_VALUE_LAST_DIGIT);
+  }
+
+  /**
+   * @return whether {@code c} matches {@code [0-9A-Za-z-]}
+   */
+  static boolean isValidIdentifierChar(char c) {
+    return c >= '0' && c <= '9'
+        || c >= 'A' && c <= 'Z'
+        || c >= 'a' && c <= 'z'
+        || c == '-';
+  }
+
+  /**
+   * Equivalent to {@code input.subSequence(start, end).toString()}, but returns {@code input} itself when it's a
+   * String and the range covers all of it.
+   */
+  static String substring(CharSequence input, int start, int end) {
+    if (input instanceof String string) {
+      return (start == 0 && end == string.length()) ? string : string.substring(start, end);
+    }
+    return input.subSequence(start, end).toString();
+  }
+}
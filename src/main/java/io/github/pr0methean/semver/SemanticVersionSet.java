@@ -0,0 +1,400 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * An immutable {@link NavigableSet} of versions in their natural ordering ({@link SemanticVersion#TOTAL_ORDERING}),
+ * stored as parallel arrays rather than as a tree of nodes. The major, minor and patch versions each take a
+ * {@code long[]}; prerelease identifiers and build metadata live in a side table indexed through a rank bitmap, so a
+ * release version costs 24 bytes plus one bit. Lookups are binary searches that compare the primitive components in
+ * place, and elements are only materialized as SemanticVersion instances when returned.
+ *
+ * <p>Subsets returned by {@link #subSet}, {@link #headSet} and {@link #tailSet} share the parent's storage. Unlike
+ * those of {@link TreeSet}, they accept bounds outside their own range and clamp them. {@link #descendingSet()}
+ * returns an unmodifiable copy.
+ */
+public final class SemanticVersionSet extends AbstractSet<SemanticVersion> implements NavigableSet<SemanticVersion> {
+  private static final SemanticVersionSet EMPTY = new SemanticVersionSet(Storage.EMPTY, 0, 0);
+
+  private final Storage storage;
+  private final int from;
+  private final int to;
+
+  private SemanticVersionSet(Storage storage, int from, int to) {
+    this.storage = storage;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * @param versions the versions to include; duplicates are dropped
+   * @return an immutable set containing exactly {@code versions}
+   * @throws NullPointerException if any of {@code versions} is null
+   */
+  public static SemanticVersionSet copyOf(Collection<? extends SemanticVersion> versions) {
+    if (versions instanceof SemanticVersionSet set) {
+      return set;
+    }
+    SemanticVersionImpl[] sorted = new SemanticVersionImpl[versions.size()];
+    int size = 0;
+    for (SemanticVersion version : versions) {
+      sorted[size] = SemanticVersionImpl.copyOf(Objects.requireNonNull(version));
+      size++;
+    }
+    Arrays.sort(sorted, 0, size, SemanticVersion.TOTAL_ORDERING);
+    int distinct = 0;
+    for (int i = 0; i < size; i++) {
+      if (distinct == 0 || SemanticVersion.TOTAL_ORDERING.compare(sorted[distinct - 1], sorted[i]) != 0) {
+        sorted[distinct] = sorted[i];
+        distinct++;
+      }
+    }
+    return (distinct == 0) ? EMPTY : new SemanticVersionSet(new Storage(sorted, distinct), 0, distinct);
+  }
+
+  /**
+   * @param versions the versions to include; duplicates are dropped
+   * @return an immutable set containing exactly {@code versions}
+   * @throws NullPointerException if any of {@code versions} is null
+   */
+  public static SemanticVersionSet of(SemanticVersion... versions) {
+    return copyOf(Arrays.asList(versions));
+  }
+
+  /**
+   * Struct-of-arrays storage shared between a set and its subsets.
+   */
+  private static final class Storage {
+    static final Storage EMPTY = new Storage(new SemanticVersionImpl[0], 0);
+
+    final long[] majors;
+    final long[] minors;
+    final long[] patches;
+
+    /**
+     * Bit {@code i} is set if element {@code i} has prerelease identifiers or build metadata.
+     */
+    final long[] extraBits;
+
+    /**
+     * The number of bits set in {@link #extraBits} before each of its words.
+     */
+    final int[] extraRanks;
+
+    final PrereleaseIdentifier[][] extraPrereleases;
+    final String[] extraBuildMetadata;
+
+    Storage(SemanticVersionImpl[] sorted, int size) {
+      majors = new long[size];
+      minors = new long[size];
+      patches = new long[size];
+      extraBits = new long[(size + Long.SIZE - 1) / Long.SIZE];
+      extraRanks = new int[extraBits.length];
+      int extraCount = 0;
+      for (int i = 0; i < size; i++) {
+        SemanticVersionImpl version = sorted[i];
+        majors[i] = version.majorVersion();
+        minors[i] = version.minorVersion();
+        patches[i] = version.patchVersion();
+        if (version.isPrerelease() || version.buildMetadata() != null) {
+          extraBits[i / Long.SIZE] |= 1L << i;
+          extraCount++;
+        }
+      }
+      extraPrereleases = new PrereleaseIdentifier[extraCount][];
+      extraBuildMetadata = new String[extraCount];
+      int rank = 0;
+      for (int word = 0; word < extraBits.length; word++) {
+        extraRanks[word] = rank;
+        rank += Long.bitCount(extraBits[word]);
+      }
+      for (int i = 0; i < size; i++) {
+        int extra = extraIndex(i);
+        if (extra >= 0) {
+          extraPrereleases[extra] = sorted[i].prereleaseVersionArray();
+          extraBuildMetadata[extra] = sorted[i].buildMetadata();
+        }
+      }
+    }
+
+    /**
+     * @return the index of element {@code i} in the side table, or -1 if it has no entry there
+     */
+    int extraIndex(int i) {
+      int word = i / Long.SIZE;
+      long bit = 1L << i;
+      long bits = extraBits[word];
+      if ((bits & bit) == 0) {
+        return -1;
+      }
+      return extraRanks[word] + Long.bitCount(bits & (bit - 1));
+    }
+
+    SemanticVersion get(int i) {
+      int extra = extraIndex(i);
+      if (extra < 0) {
+        return SemanticVersionImpl.of(majors[i], minors[i], patches[i], null, null);
+      }
+      return SemanticVersionImpl.of(majors[i], minors[i], patches[i], extraPrereleases[extra],
+          extraBuildMetadata[extra]);
+    }
+
+    /**
+     * Compares element {@code i} with {@code key} as {@link SemanticVersion#TOTAL_ORDERING} would.
+     */
+    int compare(int i, SemanticVersionImpl key) {
+      int result = Long.compareUnsigned(majors[i], key.majorVersion());
+      if (result != 0) {
+        return result;
+      }
+      result = Long.compareUnsigned(minors[i], key.minorVersion());
+      if (result != 0) {
+        return result;
+      }
+      result = Long.compareUnsigned(patches[i], key.patchVersion());
+      if (result != 0) {
+        return result;
+      }
+      int extra = extraIndex(i);
+      @Nullable PrereleaseIdentifier[] prerelease = (extra < 0) ? null : extraPrereleases[extra];
+      result = SemanticVersionComparators.comparePrereleaseArrays(prerelease, key.prereleaseVersionArray());
+      if (result != 0) {
+        return result;
+      }
+      @Nullable String buildMetadata = (extra < 0) ? null : extraBuildMetadata[extra];
+      @Nullable String keyBuildMetadata = key.buildMetadata();
+      if (buildMetadata == null) {
+        return (keyBuildMetadata == null) ? 0 : -1;
+      }
+      return (keyBuildMetadata == null) ? 1 : buildMetadata.compareTo(keyBuildMetadata);
+    }
+  }
+
+  /**
+   * @return the index of {@code key} within [from, to) if present, or else {@code -(insertionPoint) - 1}
+   */
+  private int search(SemanticVersion key) {
+    SemanticVersionImpl keyImpl = SemanticVersionImpl.copyOf(key);
+    int low = from;
+    int high = to - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int result = storage.compare(mid, keyImpl);
+      if (result < 0) {
+        low = mid + 1;
+      } else if (result > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * @return the index of the least element at least {@code key} (or above it, if not {@code inclusive}), or
+   *     {@link #to} if there is none
+   */
+  private int lowerBound(SemanticVersion key, boolean inclusive) {
+    int index = search(key);
+    if (index < 0) {
+      return -index - 1;
+    }
+    return inclusive ? index : index + 1;
+  }
+
+  @Nullable
+  private SemanticVersion elementAt(int index) {
+    return (index >= from && index < to) ? storage.get(index) : null;
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof SemanticVersion version && search(version) >= 0;
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion lower(SemanticVersion e) {
+    return elementAt(lowerBound(e, true) - 1);
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion floor(SemanticVersion e) {
+    return elementAt(lowerBound(e, false) - 1);
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion ceiling(SemanticVersion e) {
+    return elementAt(lowerBound(e, true));
+  }
+
+  @Nullable
+  @Override
+  public SemanticVersion higher(SemanticVersion e) {
+    return elementAt(lowerBound(e, false));
+  }
+
+  @Override
+  public SemanticVersion pollFirst() {
+    throw new UnsupportedOperationException("SemanticVersionSet is immutable");
+  }
+
+  @Override
+  public SemanticVersion pollLast() {
+    throw new UnsupportedOperationException("SemanticVersionSet is immutable");
+  }
+
+  @Override
+  public Iterator<SemanticVersion> iterator() {
+    return new Iterator<>() {
+      private int next = from;
+
+      @Override
+      public boolean hasNext() {
+        return next < to;
+      }
+
+      @Override
+      public SemanticVersion next() {
+        if (next >= to) {
+          throw new NoSuchElementException();
+        }
+        return storage.get(next++);
+      }
+    };
+  }
+
+  @Override
+  public Iterator<SemanticVersion> descendingIterator() {
+    return new Iterator<>() {
+      private int next = to - 1;
+
+      @Override
+      public boolean hasNext() {
+        return next >= from;
+      }
+
+      @Override
+      public SemanticVersion next() {
+        if (next < from) {
+          throw new NoSuchElementException();
+        }
+        return storage.get(next--);
+      }
+    };
+  }
+
+  /**
+   * @return an unmodifiable copy of this set in descending order
+   */
+  @Override
+  public NavigableSet<SemanticVersion> descendingSet() {
+    TreeSet<SemanticVersion> descending = new TreeSet<>(Collections.reverseOrder());
+    descending.addAll(this);
+    return Collections.unmodifiableNavigableSet(descending);
+  }
+
+  @Override
+  public SemanticVersionSet subSet(SemanticVersion fromElement, boolean fromInclusive, SemanticVersion toElement,
+      boolean toInclusive) {
+    if (fromElement.compareTo(toElement) > 0) {
+      throw new IllegalArgumentException("fromElement " + fromElement + " is after toElement " + toElement);
+    }
+    return range(lowerBound(fromElement, fromInclusive), lowerBound(toElement, !toInclusive));
+  }
+
+  @Override
+  public SemanticVersionSet headSet(SemanticVersion toElement, boolean inclusive) {
+    return range(from, lowerBound(toElement, !inclusive));
+  }
+
+  @Override
+  public SemanticVersionSet tailSet(SemanticVersion fromElement, boolean inclusive) {
+    return range(lowerBound(fromElement, inclusive), to);
+  }
+
+  @Override
+  public SemanticVersionSet subSet(SemanticVersion fromElement, SemanticVersion toElement) {
+    return subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public SemanticVersionSet headSet(SemanticVersion toElement) {
+    return headSet(toElement, false);
+  }
+
+  @Override
+  public SemanticVersionSet tailSet(SemanticVersion fromElement) {
+    return tailSet(fromElement, true);
+  }
+
+  private SemanticVersionSet range(int newFrom, int newTo) {
+    if (newFrom == from && newTo == to) {
+      return this;
+    }
+    return (newFrom >= newTo) ? EMPTY : new SemanticVersionSet(storage, newFrom, newTo);
+  }
+
+  /**
+   * @return null, since the set uses the natural ordering
+   */
+  @Nullable
+  @Override
+  public Comparator<? super SemanticVersion> comparator() {
+    return null;
+  }
+
+  @Override
+  public SemanticVersion first() {
+    if (from == to) {
+      throw new NoSuchElementException();
+    }
+    return storage.get(from);
+  }
+
+  @Override
+  public SemanticVersion last() {
+    if (from == to) {
+      throw new NoSuchElementException();
+    }
+    return storage.get(to - 1);
+  }
+
+  /**
+   * @param index a position in this set's iteration order, from 0 to {@code size() - 1}
+   * @return the element at that position
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public SemanticVersion get(int index) {
+    Objects.checkIndex(index, size());
+    return storage.get(from + index);
+  }
+
+  /**
+   * @param version the version to look for
+   * @return its position in this set's iteration order if present, or else {@code -(insertionPoint) - 1}, as
+   *     {@link Arrays#binarySearch(Object[], Object)} returns
+   */
+  public int indexOf(SemanticVersion version) {
+    int index = search(version);
+    return (index >= 0) ? index - from : index + from;
+  }
+}
@@ -0,0 +1,69 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serial;
+
+/**
+ * Serialized form of every built-in SemanticVersion implementation and of {@link PrereleaseIdentifier}. Default record
+ * serialization writes a class descriptor with every field name for each record type in the graph; this writes one
+ * short descriptor, a kind byte and the {@link WireFormat} encoding.
+ */
+final class SerializationProxy implements Externalizable {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private static final byte VERSION = 0;
+  private static final byte IDENTIFIER = 1;
+
+  @Nullable private Object value;
+
+  /**
+   * Required by {@link Externalizable}; only for deserialization.
+   */
+  public SerializationProxy() {}
+
+  SerializationProxy(SemanticVersion value) {
+    this.value = value;
+  }
+
+  SerializationProxy(PrereleaseIdentifier value) {
+    this.value = value;
+  }
+
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    if (value instanceof PrereleaseIdentifier identifier) {
+      out.writeByte(IDENTIFIER);
+      WireFormat.writeTo(identifier, out);
+    } else {
+      out.writeByte(VERSION);
+      WireFormat.writeTo((SemanticVersion) value, out);
+    }
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException {
+    byte kind = in.readByte();
+    try {
+      value = switch (kind) {
+        case VERSION -> WireFormat.readFrom(in);
+        case IDENTIFIER -> WireFormat.readIdentifier(in);
+        default -> throw new InvalidObjectException("Unknown serialized kind " + kind);
+      };
+    } catch (IllegalArgumentException e) {
+      InvalidObjectException wrapped = new InvalidObjectException(e.getMessage());
+      wrapped.initCause(e);
+      throw wrapped;
+    }
+  }
+
+  @Serial
+  private Object readResolve() {
+    return value;
+  }
+}
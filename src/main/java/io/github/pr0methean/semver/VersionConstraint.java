@@ -0,0 +1,111 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A parsed version constraint, such as {@code ^1.2.3}, {@code >=1.0 <2 || 3.x} or {@code [1.0,2.0)}, which matches
+ * the versions in a {@link VersionRangeSet}. See {@link #parse(String)} for the syntax. Instances are immutable
+ * and thread-safe; parse each constraint once and reuse it, since matching never looks at the string again.
+ */
+public final class VersionConstraint implements Predicate<SemanticVersion> {
+  private final String source;
+  private final VersionRangeSet rangeSet;
+  private final VersionRangeSet namedPrereleaseLines;
+
+  private VersionConstraint(String source, VersionRangeSet rangeSet, VersionRangeSet namedPrereleaseLines) {
+    this.source = source;
+    this.rangeSet = rangeSet;
+    this.namedPrereleaseLines = namedPrereleaseLines;
+  }
+
+  /**
+   * Parses a constraint in one of these syntaxes:
+   * <ul>
+   *   <li>Maven-style intervals, e.g. {@code [1.0,2.0)}, {@code (,1.0],[1.2,)} or {@code [1.5]}. Missing minor and
+   *   patch versions are taken as 0.</li>
+   *   <li>npm-style ranges: alternatives separated by {@code ||}, each either a hyphen range such as
+   *   {@code 1.2 - 2.3.4} or a set of comparators that must all match, such as {@code >=1.2.3 <2}. A comparator is an
+   *   optional {@code =}, {@code <}, {@code <=}, {@code >}, {@code >=}, {@code ~} (patch-level changes) or {@code ^}
+   *   (changes that don't modify the first nonzero component) followed by a version whose trailing components may be
+   *   missing or written as {@code x}, {@code X} or {@code *}. An empty alternative matches everything.</li>
+   * </ul>
+   * Unlike npm, a prerelease matches any range that contains it by precedence.
+   *
+   * @param input the constraint
+   * @return the parsed constraint
+   * @throws IllegalArgumentException if {@code input} isn't a valid constraint
+   */
+  public static VersionConstraint parse(String input) {
+    List<SemanticVersion> namedPrereleases = new ArrayList<>();
+    VersionRangeSet rangeSet = VersionRangeSet.of(VersionConstraintParser.parse(input, namedPrereleases));
+    List<VersionRange> lines = new ArrayList<>(namedPrereleases.size());
+    for (SemanticVersion prerelease : namedPrereleases) {
+      @Unsigned long major = prerelease.majorVersion();
+      @Unsigned long minor = prerelease.minorVersion();
+      @Unsigned long patch = prerelease.patchVersion();
+      lines.add(VersionRange.between(VersionNeighbors.lineStart(major, minor, patch), true,
+          SemanticVersionImpl.of(major, minor, patch, null, null), false));
+    }
+    return new VersionConstraint(input, rangeSet, VersionRangeSet.of(lines).intersection(rangeSet));
+  }
+
+  /**
+   * @return the versions this constraint matches, in normal form
+   */
+  public VersionRangeSet rangeSet() {
+    return rangeSet;
+  }
+
+  /**
+   * @return the disjoint ranges whose union this constraint matches, in ascending order
+   */
+  public List<VersionRange> ranges() {
+    return rangeSet.ranges();
+  }
+
+  /**
+   * @return the prereleases this constraint matches that share their major, minor and patch versions with a
+   *     prerelease written in it, which npm-style resolution allows even when it otherwise excludes prereleases
+   */
+  VersionRangeSet namedPrereleaseLines() {
+    return namedPrereleaseLines;
+  }
+
+  /**
+   * @return true if no version can match
+   */
+  public boolean isEmpty() {
+    return rangeSet.isEmpty();
+  }
+
+  /**
+   * @param version the version to check
+   * @return true if {@code version} satisfies this constraint, ignoring its build metadata
+   */
+  @Override
+  public boolean test(SemanticVersion version) {
+    return rangeSet.contains(version);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof VersionConstraint that && source.equals(that.source));
+  }
+
+  @Override
+  public int hashCode() {
+    return source.hashCode();
+  }
+
+  /**
+   * @return the string this constraint was parsed from
+   */
+  @Override
+  public String toString() {
+    return source;
+  }
+}
@@ -0,0 +1,344 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates the syntaxes described at {@link VersionConstraint#parse(String)} into unions of {@link VersionRange}s.
+ * npm-style comparators are desugared the way npm does it, except that upper bounds exclude the next line's
+ * prereleases explicitly, so e.g. {@code ^1.2} becomes {@code >=1.2.0 <2.0.0-0}.
+ */
+final class VersionConstraintParser {
+  private VersionConstraintParser() {}
+
+  /**
+   * @param namedPrereleases receives every prerelease version written in the constraint
+   * @return the ranges whose union is the constraint, omitting empty ones
+   * @throws IllegalArgumentException if {@code input} isn't a valid constraint
+   */
+  static List<VersionRange> parse(String input, List<SemanticVersion> namedPrereleases) {
+    String trimmed = input.strip();
+    List<VersionRange> ranges = new ArrayList<>();
+    if (trimmed.startsWith("[") || trimmed.startsWith("(")) {
+      parseMaven(input, trimmed, ranges, namedPrereleases);
+    } else {
+      for (String alternative : trimmed.split("\\|\\|", -1)) {
+        VersionRange range = parseNpmRange(input, alternative.strip(), namedPrereleases);
+        if (!range.isEmpty()) {
+          ranges.add(range);
+        }
+      }
+    }
+    return ranges;
+  }
+
+  private static IllegalArgumentException invalid(String input, String reason) {
+    return new IllegalArgumentException("Invalid version constraint \"" + input + "\": " + reason);
+  }
+
+  private static void parseMaven(String input, String trimmed, List<VersionRange> ranges,
+      List<SemanticVersion> namedPrereleases) {
+    int pos = 0;
+    while (pos < trimmed.length()) {
+      char open = trimmed.charAt(pos);
+      if (open != '[' && open != '(') {
+        throw invalid(input, "expected '[' or '(' at index " + pos);
+      }
+      int close = pos + 1;
+      while (close < trimmed.length() && trimmed.charAt(close) != ']' && trimmed.charAt(close) != ')') {
+        close++;
+      }
+      if (close == trimmed.length()) {
+        throw invalid(input, "unclosed interval");
+      }
+      String body = trimmed.substring(pos + 1, close);
+      boolean lowerInclusive = open == '[';
+      boolean upperInclusive = trimmed.charAt(close) == ']';
+      int comma = body.indexOf(',');
+      VersionRange range;
+      if (comma < 0) {
+        if (!lowerInclusive || !upperInclusive) {
+          throw invalid(input, "a single version must be enclosed in []");
+        }
+        range = VersionRange.exactly(parseMavenVersion(input, body.strip(), namedPrereleases));
+      } else {
+        String lowerText = body.substring(0, comma).strip();
+        String upperText = body.substring(comma + 1).strip();
+        range = VersionRange.between(
+            lowerText.isEmpty() ? null : parseMavenVersion(input, lowerText, namedPrereleases), lowerInclusive,
+            upperText.isEmpty() ? null : parseMavenVersion(input, upperText, namedPrereleases), upperInclusive);
+      }
+      if (!range.isEmpty()) {
+        ranges.add(range);
+      }
+      pos = close + 1;
+      while (pos < trimmed.length() && Character.isWhitespace(trimmed.charAt(pos))) {
+        pos++;
+      }
+      if (pos < trimmed.length()) {
+        if (trimmed.charAt(pos) != ',') {
+          throw invalid(input, "expected ',' between intervals at index " + pos);
+        }
+        pos++;
+        while (pos < trimmed.length() && Character.isWhitespace(trimmed.charAt(pos))) {
+          pos++;
+        }
+        if (pos == trimmed.length()) {
+          throw invalid(input, "trailing ','");
+        }
+      }
+    }
+  }
+
+  private static SemanticVersion parseMavenVersion(String input, String text, List<SemanticVersion> namedPrereleases) {
+    PartialVersion partial = PartialVersion.parse(input, text, namedPrereleases);
+    if (partial.specified == 0) {
+      throw invalid(input, "wildcards aren't allowed in an interval: " + text);
+    }
+    return partial.floor();
+  }
+
+  private static VersionRange parseNpmRange(String input, String text, List<SemanticVersion> namedPrereleases) {
+    if (text.isEmpty()) {
+      return VersionRange.all();
+    }
+    int hyphen = hyphenIndex(text);
+    if (hyphen >= 0) {
+      PartialVersion lower = PartialVersion.parse(input, text.substring(0, hyphen).strip(), namedPrereleases);
+      PartialVersion upper = PartialVersion.parse(input, text.substring(hyphen + 1).strip(), namedPrereleases);
+      if (upper.specified == 3) {
+        return VersionRange.between(lower.floorOrNull(), true, upper.version, true);
+      }
+      return VersionRange.between(lower.floorOrNull(), true, upper.nextLineOrNull(), false);
+    }
+    VersionRange result = VersionRange.all();
+    String[] tokens = text.split("[\\s,]+");
+    for (int i = 0; i < tokens.length; i++) {
+      String token = tokens[i];
+      int operatorLength = operatorLength(token);
+      String operator = token.substring(0, operatorLength);
+      String versionText = token.substring(operatorLength);
+      if (versionText.isEmpty()) {
+        // Operator separated from its version by whitespace
+        if (operatorLength == 0 || ++i == tokens.length) {
+          throw invalid(input, "missing version after '" + operator + "'");
+        }
+        versionText = tokens[i];
+      }
+      result = intersect(result, comparator(input, operator,
+          PartialVersion.parse(input, versionText, namedPrereleases)));
+    }
+    return result;
+  }
+
+  /**
+   * @return the index of the {@code -} in a hyphen range, which must have whitespace on both sides, or -1
+   */
+  private static int hyphenIndex(String text) {
+    for (int i = 1; i + 1 < text.length(); i++) {
+      if (text.charAt(i) == '-' && Character.isWhitespace(text.charAt(i - 1))
+          && Character.isWhitespace(text.charAt(i + 1))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int operatorLength(String token) {
+    if (token.startsWith(">=") || token.startsWith("<=")) {
+      return 2;
+    }
+    if (!token.isEmpty() && "<>=~^".indexOf(token.charAt(0)) >= 0) {
+      return 1;
+    }
+    return 0;
+  }
+
+  private static VersionRange comparator(String input, String operator, PartialVersion partial) {
+    if (partial.specified == 0) {
+      return switch (operator) {
+        case "<", ">" -> VersionRange.empty();
+        default -> VersionRange.all();
+      };
+    }
+    return switch (operator) {
+      case "", "=" -> (partial.specified == 3) ? VersionRange.exactly(partial.version)
+          : VersionRange.between(partial.floor(), true, partial.nextLineOrNull(), false);
+      case ">" -> (partial.specified == 3) ? VersionRange.greaterThan(partial.version)
+          : nullableAtLeast(partial.nextLineOrNull());
+      case ">=" -> VersionRange.atLeast(partial.floor());
+      case "<" -> VersionRange.lessThan((partial.specified == 3) ? partial.version : partial.lineStart());
+      case "<=" -> (partial.specified == 3) ? VersionRange.atMost(partial.version)
+          : VersionRange.between(null, false, partial.nextLineOrNull(), false);
+      case "~" -> VersionRange.between(partial.floor(), true,
+          (partial.specified == 1) ? partial.nextMajorLine() : partial.nextMinorLine(), false);
+      case "^" -> VersionRange.between(partial.floor(), true, caretCeiling(partial), false);
+      default -> throw invalid(input, "unknown operator '" + operator + "'");
+    };
+  }
+
+  private static VersionRange nullableAtLeast(@Nullable SemanticVersion version) {
+    return (version == null) ? VersionRange.empty() : VersionRange.atLeast(version);
+  }
+
+  /**
+   * @return the exclusive upper bound for {@code ^}, which allows changes to everything after the first nonzero
+   *     component that was given
+   */
+  @Nullable
+  private static SemanticVersion caretCeiling(PartialVersion partial) {
+    if (partial.major != 0 || partial.specified == 1) {
+      return partial.nextMajorLine();
+    }
+    if (partial.minor != 0 || partial.specified == 2) {
+      return partial.nextMinorLine();
+    }
+    return VersionNeighbors.nextLineStart(partial.major, partial.minor, partial.patch);
+  }
+
+  private static VersionRange intersect(VersionRange a, VersionRange b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return VersionRange.empty();
+    }
+    @Nullable SemanticVersion lower = a.lower();
+    boolean lowerInclusive = a.isLowerInclusive();
+    if (b.lower() != null) {
+      int result = (lower == null) ? -1 : SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(lower, b.lower());
+      if (result < 0 || (result == 0 && !b.isLowerInclusive())) {
+        lower = b.lower();
+        lowerInclusive = b.isLowerInclusive();
+      }
+    }
+    @Nullable SemanticVersion upper = a.upper();
+    boolean upperInclusive = a.isUpperInclusive();
+    if (b.upper() != null) {
+      int result = (upper == null) ? 1 : SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(upper, b.upper());
+      if (result > 0 || (result == 0 && !b.isUpperInclusive())) {
+        upper = b.upper();
+        upperInclusive = b.isUpperInclusive();
+      }
+    }
+    return VersionRange.between(lower, lowerInclusive, upper, upperInclusive);
+  }
+
+  /**
+   * A version in which trailing components may be unspecified.
+   */
+  private static final class PartialVersion {
+    /**
+     * How many of major, minor and patch were given.
+     */
+    final int specified;
+    @Unsigned final long major;
+    @Unsigned final long minor;
+    @Unsigned final long patch;
+
+    /**
+     * The full version, including any prerelease, if all three components were given.
+     */
+    @Nullable final SemanticVersion version;
+
+    private PartialVersion(int specified, @Unsigned long major, @Unsigned long minor, @Unsigned long patch,
+        @Nullable SemanticVersion version) {
+      this.specified = specified;
+      this.major = major;
+      this.minor = minor;
+      this.patch = patch;
+      this.version = version;
+    }
+
+    /**
+     * @param namedPrereleases receives the parsed version if it's a prerelease
+     */
+    static PartialVersion parse(String input, String text, List<SemanticVersion> namedPrereleases) {
+      if (text.startsWith("v") || text.startsWith("V")) {
+        text = text.substring(1);
+      }
+      if (text.isEmpty()) {
+        throw invalid(input, "missing version");
+      }
+      String[] components = text.split("\\.", 3);
+      long[] values = new long[3];
+      int specified = 0;
+      for (String component : components) {
+        if (component.equals("x") || component.equals("X") || component.equals("*")) {
+          break;
+        }
+        if (specified == 2) {
+          // Patch version, possibly followed by a prerelease and build metadata
+          try {
+            SemanticVersion version = SemanticVersion.valueOf(text);
+            if (version.isPrerelease()) {
+              namedPrereleases.add(version);
+            }
+            return new PartialVersion(3, version.majorVersion(), version.minorVersion(), version.patchVersion(),
+                version);
+          } catch (IllegalArgumentException e) {
+            throw invalid(input, e.getMessage());
+          }
+        }
+        if (component.isEmpty() || !component.chars().allMatch(c -> c >= '0' && c <= '9')) {
+          throw invalid(input, "invalid version component \"" + component + "\"");
+        }
+        try {
+          values[specified++] = Long.parseUnsignedLong(component);
+        } catch (NumberFormatException e) {
+          throw invalid(input, "version component out of range: " + component);
+        }
+      }
+      for (int i = specified + 1; i < components.length; i++) {
+        String component = components[i];
+        if (!component.equals("x") && !component.equals("X") && !component.equals("*")) {
+          throw invalid(input, "a wildcard can only be followed by more wildcards: " + text);
+        }
+      }
+      return new PartialVersion(specified, values[0], values[1], values[2], null);
+    }
+
+    /**
+     * @return the least release version that matches, with missing components taken as 0
+     */
+    SemanticVersion floor() {
+      return (version != null) ? version : SemanticVersionImpl.of(major, minor, patch, null, null);
+    }
+
+    @Nullable
+    SemanticVersion floorOrNull() {
+      return (specified == 0) ? null : floor();
+    }
+
+    /**
+     * @return the least version, including prereleases, with the given components
+     */
+    SemanticVersion lineStart() {
+      return VersionNeighbors.lineStart(major, minor, patch);
+    }
+
+    /**
+     * @return the least version, including prereleases, after all those that match the given components, or null if
+     *     there is none; only meaningful if fewer than three components were given
+     */
+    @Nullable
+    SemanticVersion nextLineOrNull() {
+      return switch (specified) {
+        case 1 -> nextMajorLine();
+        case 2 -> nextMinorLine();
+        default -> null;
+      };
+    }
+
+    @Nullable
+    SemanticVersion nextMajorLine() {
+      return VersionNeighbors.nextLineStart(major, SemanticVersion.UNSIGNED_MAX_VALUE,
+          SemanticVersion.UNSIGNED_MAX_VALUE);
+    }
+
+    @Nullable
+    SemanticVersion nextMinorLine() {
+      return VersionNeighbors.nextLineStart(major, minor, SemanticVersion.UNSIGNED_MAX_VALUE);
+    }
+  }
+}
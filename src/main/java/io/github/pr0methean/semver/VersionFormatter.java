@@ -0,0 +1,261 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Writes the canonical string form of a SemanticVersion without building intermediate Strings. Built-in
+ * implementations are formatted straight from their parsed parts; others, from their {@code prereleaseVersion()} list.
+ */
+final class VersionFormatter {
+  /**
+   * Powers of ten from 10^0 to 10^19, the last of which is only meaningful as an unsigned long.
+   */
+  private static final long[] POWERS_OF_TEN = new long[20];
+
+  /**
+   * Replaces characters that ASCII can't represent, as {@link java.nio.charset.StandardCharsets#US_ASCII} does.
+   */
+  private static final byte REPLACEMENT = '?';
+
+  static {
+    long power = 1;
+    for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = power;
+      power *= 10;
+    }
+  }
+
+  private VersionFormatter() {}
+
+  static String toString(SemanticVersion version) {
+    return formatTo(version, new StringBuilder(length(version))).toString();
+  }
+
+  /**
+   * @return the number of characters in {@code version.toString()}
+   */
+  static int length(SemanticVersion version) {
+    int length = unsignedLength(version.majorVersion()) + unsignedLength(version.minorVersion())
+        + unsignedLength(version.patchVersion()) + 2;
+    if (version.isPrerelease()) {
+      if (version instanceof SemanticVersionImpl impl) {
+        for (PrereleaseIdentifier identifier : impl.prereleaseVersionArray()) {
+          length += length(identifier) + 1; // '-' before the first, '.' before the rest
+        }
+      } else {
+        for (String identifier : version.prereleaseVersion()) {
+          length += identifier.length() + 1;
+        }
+      }
+    }
+    @Nullable String buildMetadata = version.buildMetadata();
+    if (buildMetadata != null) {
+      length += buildMetadata.length() + 1;
+    }
+    return length;
+  }
+
+  static int length(PrereleaseIdentifier identifier) {
+    return (identifier.hasNumericPart() ? unsignedLength(identifier.numericPart()) : 0) + identifier.suffix().length();
+  }
+
+  /**
+   * @return the number of decimal digits in {@code value}, treated as unsigned
+   */
+  static int unsignedLength(@Unsigned long value) {
+    for (int digits = 1; digits < POWERS_OF_TEN.length; digits++) {
+      if (Long.compareUnsigned(value, POWERS_OF_TEN[digits]) < 0) {
+        return digits;
+      }
+    }
+    return POWERS_OF_TEN.length;
+  }
+
+  static StringBuilder formatTo(SemanticVersion version, StringBuilder out) {
+    format(version, new BuilderSink(out));
+    return out;
+  }
+
+  static void formatTo(SemanticVersion version, Appendable out) throws IOException {
+    if (out instanceof StringBuilder builder) {
+      formatTo(version, builder);
+    } else {
+      format(version, new AppendableSink(out));
+    }
+  }
+
+  /**
+   * @return the index after the last byte written
+   */
+  static int writeAscii(SemanticVersion version, byte[] dest, int offset) {
+    Objects.checkFromIndexSize(offset, length(version), dest.length);
+    ArraySink sink = new ArraySink(dest, offset);
+    format(version, sink);
+    return sink.pos;
+  }
+
+  static void writeAscii(SemanticVersion version, ByteBuffer dest) {
+    int length = length(version);
+    if (dest.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    if (dest.hasArray()) {
+      writeAscii(version, dest.array(), dest.arrayOffset() + dest.position());
+      dest.position(dest.position() + length);
+    } else {
+      // Direct or read-only; the latter will throw from put()
+      format(version, new BufferSink(dest));
+    }
+  }
+
+  private static <E extends Exception> void format(SemanticVersion version, Sink<E> out) throws E {
+    out.putUnsigned(version.majorVersion());
+    out.put('.');
+    out.putUnsigned(version.minorVersion());
+    out.put('.');
+    out.putUnsigned(version.patchVersion());
+    if (version.isPrerelease()) {
+      char separator = '-';
+      if (version instanceof SemanticVersionImpl impl) {
+        for (PrereleaseIdentifier identifier : impl.prereleaseVersionArray()) {
+          out.put(separator);
+          if (identifier.hasNumericPart()) {
+            out.putUnsigned(identifier.numericPart());
+          }
+          out.put(identifier.suffix());
+          separator = '.';
+        }
+      } else {
+        for (String identifier : version.prereleaseVersion()) {
+          out.put(separator);
+          out.put(identifier);
+          separator = '.';
+        }
+      }
+    }
+    @Nullable String buildMetadata = version.buildMetadata();
+    if (buildMetadata != null) {
+      out.put('+');
+      out.put(buildMetadata);
+    }
+  }
+
+  /**
+   * The minimal output that {@link #format} needs, so that one copy of the formatting logic serves every destination.
+   * @param <E> the exception that writing can throw
+   */
+  private interface Sink<E extends Exception> {
+    void put(char c) throws E;
+
+    void put(String s) throws E;
+
+    default void putUnsigned(@Unsigned long value) throws E {
+      for (int digit = unsignedLength(value) - 1; digit >= 0; digit--) {
+        put((char) ('0' + Long.remainderUnsigned(Long.divideUnsigned(value, POWERS_OF_TEN[digit]), 10)));
+      }
+    }
+  }
+
+  private record BuilderSink(StringBuilder out) implements Sink<RuntimeException> {
+    @Override
+    public void put(char c) {
+      out.append(c);
+    }
+
+    @Override
+    public void put(String s) {
+      out.append(s);
+    }
+
+    @Override
+    public void putUnsigned(@Unsigned long value) {
+      if (value >= 0) {
+        out.append(value);
+      } else {
+        // Same split as Long.toUnsignedString, but without the intermediate String
+        long quotient = (value >>> 1) / 5;
+        out.append(quotient).append((char) ('0' + (value - quotient * 10)));
+      }
+    }
+  }
+
+  private record AppendableSink(Appendable out) implements Sink<IOException> {
+    @Override
+    public void put(char c) throws IOException {
+      out.append(c);
+    }
+
+    @Override
+    public void put(String s) throws IOException {
+      out.append(s);
+    }
+  }
+
+  /**
+   * Writes ASCII into an array that's already known to have room.
+   */
+  private static final class ArraySink implements Sink<RuntimeException> {
+    private final byte[] dest;
+    private int pos;
+
+    ArraySink(byte[] dest, int pos) {
+      this.dest = dest;
+      this.pos = pos;
+    }
+
+    @Override
+    public void put(char c) {
+      dest[pos++] = ascii(c);
+    }
+
+    @Override
+    public void put(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        dest[pos++] = ascii(s.charAt(i));
+      }
+    }
+
+    @Override
+    public void putUnsigned(@Unsigned long value) {
+      int end = pos + unsignedLength(value);
+      int digitPos = end;
+      if (value < 0) {
+        long quotient = (value >>> 1) / 5;
+        dest[--digitPos] = (byte) ('0' + (value - quotient * 10));
+        value = quotient;
+      }
+      do {
+        dest[--digitPos] = (byte) ('0' + value % 10);
+        value /= 10;
+      } while (value != 0);
+      pos = end;
+    }
+  }
+
+  /**
+   * Writes ASCII into a buffer that's already known to have room, one byte at a time.
+   */
+  private record BufferSink(ByteBuffer dest) implements Sink<RuntimeException> {
+    @Override
+    public void put(char c) {
+      dest.put(ascii(c));
+    }
+
+    @Override
+    public void put(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        dest.put(ascii(s.charAt(i)));
+      }
+    }
+  }
+
+  private static byte ascii(char c) {
+    return (c < 0x80) ? (byte) c : REPLACEMENT;
+  }
+}
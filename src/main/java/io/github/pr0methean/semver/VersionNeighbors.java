@@ -0,0 +1,146 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Finds the versions immediately adjacent to a given one under
+ * {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR} or {@link SemanticVersion#TOTAL_ORDERING}. The least
+ * prerelease identifier is the numeric {@code 0}, so the least version with given major, minor and patch versions is
+ * {@code M.m.p-0}, and the least version greater than a prerelease is that prerelease with {@code .0} appended.
+ * Likewise, since strictly valid build metadata consists of ASCII letters, digits and {@code -}, the least
+ * build-metadata string is {@code -}, and the least one greater than a given string is that string with {@code -}
+ * appended. Since alphanumeric identifiers have no maximum length, many versions have no immediate
+ * predecessor.
+ */
+final class VersionNeighbors {
+  private static final PrereleaseIdentifier[] LINE_START_PRERELEASE = {PrereleaseIdentifier.MIN_VALUE};
+
+  /**
+   * The least valid build-metadata character, and thus the least build-metadata string.
+   */
+  private static final char LEAST_METADATA_CHAR = '-';
+
+  private VersionNeighbors() {}
+
+  /**
+   * @return the least version with the given major, minor and patch versions
+   */
+  static SemanticVersion lineStart(@Unsigned long major, @Unsigned long minor, @Unsigned long patch) {
+    return SemanticVersionImpl.of(major, minor, patch, LINE_START_PRERELEASE, null);
+  }
+
+  /**
+   * @return the least version whose major, minor and patch versions are greater than the given ones, or null if they
+   *     are all {@link SemanticVersion#UNSIGNED_MAX_VALUE}
+   */
+  @Nullable
+  static SemanticVersion nextLineStart(@Unsigned long major, @Unsigned long minor, @Unsigned long patch) {
+    if (patch != SemanticVersion.UNSIGNED_MAX_VALUE) {
+      return lineStart(major, minor, patch + 1);
+    }
+    if (minor != SemanticVersion.UNSIGNED_MAX_VALUE) {
+      return lineStart(major, minor + 1, 0);
+    }
+    if (major != SemanticVersion.UNSIGNED_MAX_VALUE) {
+      return lineStart(major + 1, 0, 0);
+    }
+    return null;
+  }
+
+  /**
+   * @return the least version with greater precedence than {@code version}, without build metadata, or null if
+   *     {@code version} has the same precedence as {@link SemanticVersion#MAX_VALUE}
+   */
+  @Nullable
+  static SemanticVersion successor(SemanticVersion version) {
+    if (!version.isPrerelease()) {
+      return nextLineStart(version.majorVersion(), version.minorVersion(), version.patchVersion());
+    }
+    SemanticVersionImpl impl = SemanticVersionImpl.copyOf(version);
+    PrereleaseIdentifier[] prerelease = impl.prereleaseVersionArray();
+    PrereleaseIdentifier[] extended = Arrays.copyOf(prerelease, prerelease.length + 1);
+    extended[prerelease.length] = PrereleaseIdentifier.MIN_VALUE;
+    return SemanticVersionImpl.of(impl.majorVersion(), impl.minorVersion(), impl.patchVersion(), extended, null);
+  }
+
+  /**
+   * @return the greatest version with less precedence than {@code version}, without build metadata, or null if there
+   *     is none; only prereleases whose last identifier is {@code 0} have one
+   */
+  @Nullable
+  static SemanticVersion predecessor(SemanticVersion version) {
+    if (!version.isPrerelease()) {
+      return null; // Preceded by infinitely many prereleases
+    }
+    SemanticVersionImpl impl = SemanticVersionImpl.copyOf(version);
+    PrereleaseIdentifier[] prerelease = impl.prereleaseVersionArray();
+    if (!prerelease[prerelease.length - 1].equals(PrereleaseIdentifier.MIN_VALUE)) {
+      return null;
+    }
+    long major = impl.majorVersion();
+    long minor = impl.minorVersion();
+    long patch = impl.patchVersion();
+    if (prerelease.length > 1) {
+      return SemanticVersionImpl.of(major, minor, patch, Arrays.copyOf(prerelease, prerelease.length - 1), null);
+    }
+    // A line start is preceded by the previous line's release
+    if (patch != 0) {
+      return SemanticVersionImpl.of(major, minor, patch - 1, null, null);
+    }
+    if (minor != 0) {
+      return SemanticVersionImpl.of(major, minor - 1, SemanticVersion.UNSIGNED_MAX_VALUE, null, null);
+    }
+    if (major != 0) {
+      return SemanticVersionImpl.of(major - 1, SemanticVersion.UNSIGNED_MAX_VALUE, SemanticVersion.UNSIGNED_MAX_VALUE,
+          null, null);
+    }
+    return null;
+  }
+
+  /**
+   * @return the least version greater than {@code version} under {@link SemanticVersion#TOTAL_ORDERING}, which is
+   *     always the same version with {@code -} appended to its build metadata
+   */
+  static SemanticVersion totalSuccessor(SemanticVersion version) {
+    SemanticVersionImpl impl = SemanticVersionImpl.copyOf(version);
+    @Nullable String buildMetadata = impl.buildMetadata();
+    return SemanticVersionImpl.of(impl.majorVersion(), impl.minorVersion(), impl.patchVersion(),
+        impl.prereleaseVersionArray(),
+        (buildMetadata == null) ? String.valueOf(LEAST_METADATA_CHAR) : buildMetadata + LEAST_METADATA_CHAR);
+  }
+
+  /**
+   * @return the greatest version less than {@code version} under {@link SemanticVersion#TOTAL_ORDERING}, or null if
+   *     there is none; only versions whose build metadata ends with {@code -} have one
+   */
+  @Nullable
+  static SemanticVersion totalPredecessor(SemanticVersion version) {
+    @Nullable String buildMetadata = version.buildMetadata();
+    if (buildMetadata == null || buildMetadata.charAt(buildMetadata.length() - 1) != LEAST_METADATA_CHAR) {
+      return null;
+    }
+    int newLength = buildMetadata.length() - 1;
+    SemanticVersionImpl impl = SemanticVersionImpl.copyOf(version);
+    return SemanticVersionImpl.of(impl.majorVersion(), impl.minorVersion(), impl.patchVersion(),
+        impl.prereleaseVersionArray(), (newLength == 0) ? null : buildMetadata.substring(0, newLength));
+  }
+
+  /**
+   * @return whether {@code ordering} is {@link SemanticVersion#TOTAL_ORDERING}, as opposed to
+   *     {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @throws IllegalArgumentException if it's neither
+   */
+  static boolean isTotal(Comparator<SemanticVersion> ordering) {
+    if (ordering == SemanticVersion.TOTAL_ORDERING) {
+      return true;
+    }
+    if (ordering == SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR) {
+      return false;
+    }
+    throw new IllegalArgumentException("Unsupported ordering " + ordering);
+  }
+}
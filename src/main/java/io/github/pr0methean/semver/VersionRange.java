@@ -0,0 +1,286 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A contiguous interval of versions under {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}, with each bound
+ * either inclusive, exclusive or absent. Prereleases are matched by precedence alone, following the same rules as
+ * {@link SemanticVersion#comparePrereleaseVersions}, so {@code [1.0.0, 2.0.0)} contains {@code 2.0.0-rc.1}; use an
+ * upper bound of {@code 2.0.0-0} to exclude it.
+ *
+ * <p>Bounds are stored as built-in implementations with no build metadata, so {@link #contains} is a pair of
+ * comparisons that usually come down to a few primitive comparisons of packed fields or abbreviated keys.
+ */
+public final class VersionRange implements Predicate<SemanticVersion> {
+  private static final VersionRange ALL = new VersionRange(null, false, null, false);
+
+  /**
+   * The canonical empty range. Its bounds are never read.
+   */
+  private static final VersionRange EMPTY = new VersionRange(SemanticVersion.MAX_VALUE, false,
+      SemanticVersion.MIN_VALUE, false);
+
+  @Nullable private final SemanticVersion lower;
+  private final boolean lowerInclusive;
+  @Nullable private final SemanticVersion upper;
+  private final boolean upperInclusive;
+
+  private VersionRange(@Nullable SemanticVersion lower, boolean lowerInclusive, @Nullable SemanticVersion upper,
+      boolean upperInclusive) {
+    this.lower = lower;
+    this.lowerInclusive = lowerInclusive;
+    this.upper = upper;
+    this.upperInclusive = upperInclusive;
+  }
+
+  /**
+   * @param lower the lower bound, or null for none
+   * @param lowerInclusive whether {@code lower} itself is in the range; ignored if {@code lower} is null
+   * @param upper the upper bound, or null for none
+   * @param upperInclusive whether {@code upper} itself is in the range; ignored if {@code upper} is null
+   * @return the range between the given bounds, which is {@link #empty()} if no version can lie between them
+   */
+  public static VersionRange between(@Nullable SemanticVersion lower, boolean lowerInclusive,
+      @Nullable SemanticVersion upper, boolean upperInclusive) {
+    if (lower == null && upper == null) {
+      return ALL;
+    }
+    @Nullable SemanticVersion lowerBound = (lower == null) ? null : bound(lower);
+    @Nullable SemanticVersion upperBound = (upper == null) ? null : bound(upper);
+    if (lowerBound != null && !lowerInclusive && VersionNeighbors.successor(lowerBound) == null) {
+      return EMPTY; // Nothing is greater than MAX_VALUE
+    }
+    VersionRange range = new VersionRange(lowerBound, lowerBound != null && lowerInclusive, upperBound,
+        upperBound != null && upperInclusive);
+    // Compare as a half-open range, so that e.g. (1.0.0-0,1.0.0-0.0) is found to be empty
+    @Nullable SemanticVersion least = range.leastMember();
+    @Nullable SemanticVersion end = range.end();
+    if (end != null && SemanticVersionComparators.compareIgnoringBuildMetadata(
+        (least == null) ? SemanticVersion.MIN_VALUE : least, end) >= 0) {
+      return EMPTY;
+    }
+    return range;
+  }
+
+  /**
+   * @return a built-in instance equal to {@code version} without its build metadata
+   */
+  private static SemanticVersion bound(SemanticVersion version) {
+    if (version instanceof PackedReleaseVersion) {
+      return version;
+    }
+    SemanticVersionImpl impl = SemanticVersionImpl.copyOf(version);
+    if (impl.buildMetadata() == null && (impl.isPrerelease()
+        || !PackedReleaseVersion.fits(impl.majorVersion(), impl.minorVersion(), impl.patchVersion()))) {
+      return impl;
+    }
+    return SemanticVersionImpl.of(impl.majorVersion(), impl.minorVersion(), impl.patchVersion(),
+        impl.prereleaseVersionArray(), null);
+  }
+
+  /**
+   * @return the range containing every version
+   */
+  public static VersionRange all() {
+    return ALL;
+  }
+
+  /**
+   * @return the range containing no versions
+   */
+  public static VersionRange empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the range containing only versions with the same precedence as {@code version}
+   */
+  public static VersionRange exactly(SemanticVersion version) {
+    return between(Objects.requireNonNull(version), true, version, true);
+  }
+
+  /**
+   * @return the range of versions greater than or equal to {@code version}
+   */
+  public static VersionRange atLeast(SemanticVersion version) {
+    return between(Objects.requireNonNull(version), true, null, false);
+  }
+
+  /**
+   * @return the range of versions strictly greater than {@code version}
+   */
+  public static VersionRange greaterThan(SemanticVersion version) {
+    return between(Objects.requireNonNull(version), false, null, false);
+  }
+
+  /**
+   * @return the range of versions less than or equal to {@code version}
+   */
+  public static VersionRange atMost(SemanticVersion version) {
+    return between(null, false, Objects.requireNonNull(version), true);
+  }
+
+  /**
+   * @return the range of versions strictly less than {@code version}
+   */
+  public static VersionRange lessThan(SemanticVersion version) {
+    return between(null, false, Objects.requireNonNull(version), false);
+  }
+
+  /**
+   * Returns the versions, including prereleases, with the given major version: {@code [M.0.0-0,(M+1).0.0-0)}. The
+   * bounds are the tightest possible under both {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR} and
+   * {@link SemanticVersion#TOTAL_ORDERING}, so they can be passed straight to e.g.
+   * {@code NavigableSet.subSet(lower(), true, upper(), false)}, or {@code tailSet(lower(), true)} if {@link #upper()}
+   * is null.
+   * @param major the major version
+   * @return the range of that major version
+   */
+  public static VersionRange releaseLine(@Unsigned long major) {
+    return releaseLine(major, 0, 0, SemanticVersion.UNSIGNED_MAX_VALUE, SemanticVersion.UNSIGNED_MAX_VALUE);
+  }
+
+  /**
+   * Returns the versions, including prereleases, with the given major and minor versions:
+   * {@code [M.m.0-0,M.(m+1).0-0)}. The bounds are as tight as those of {@link #releaseLine(long)}.
+   * @param major the major version
+   * @param minor the minor version
+   * @return the range of that minor version
+   */
+  public static VersionRange releaseLine(@Unsigned long major, @Unsigned long minor) {
+    return releaseLine(major, minor, 0, minor, SemanticVersion.UNSIGNED_MAX_VALUE);
+  }
+
+  /**
+   * Returns a release and its prereleases: {@code [M.m.p-0,M.m.(p+1)-0)}. The bounds are as tight as those of
+   * {@link #releaseLine(long)}.
+   * @param major the major version
+   * @param minor the minor version
+   * @param patch the patch version
+   * @return the range of that patch version
+   */
+  public static VersionRange releaseLine(@Unsigned long major, @Unsigned long minor, @Unsigned long patch) {
+    return releaseLine(major, minor, patch, minor, patch);
+  }
+
+  private static VersionRange releaseLine(@Unsigned long major, @Unsigned long minor, @Unsigned long patch,
+      @Unsigned long lastMinor, @Unsigned long lastPatch) {
+    return new VersionRange(VersionNeighbors.lineStart(major, minor, patch), true,
+        VersionNeighbors.nextLineStart(major, lastMinor, lastPatch), false);
+  }
+
+  /**
+   * @return the lower bound, or null if there is none or the range is empty
+   */
+  @Nullable
+  public SemanticVersion lower() {
+    return (this == EMPTY) ? null : lower;
+  }
+
+  /**
+   * @return whether the lower bound is in the range; false if there is none
+   */
+  public boolean isLowerInclusive() {
+    return lowerInclusive;
+  }
+
+  /**
+   * @return the upper bound, or null if there is none or the range is empty
+   */
+  @Nullable
+  public SemanticVersion upper() {
+    return (this == EMPTY) ? null : upper;
+  }
+
+  /**
+   * @return whether the upper bound is in the range; false if there is none
+   */
+  public boolean isUpperInclusive() {
+    return upperInclusive;
+  }
+
+  public boolean isEmpty() {
+    return this == EMPTY;
+  }
+
+  /**
+   * @return the least version in this non-empty range, or null if it has no lower bound
+   */
+  @Nullable
+  SemanticVersion leastMember() {
+    return (lower == null || lowerInclusive) ? lower : VersionNeighbors.successor(lower);
+  }
+
+  /**
+   * @return the least version greater than every member of this range, or null if there is none
+   */
+  @Nullable
+  SemanticVersion end() {
+    return (upper != null && upperInclusive) ? VersionNeighbors.successor(upper) : upper;
+  }
+
+  /**
+   * @param version the version to check
+   * @return true if {@code version} lies within this range, ignoring its build metadata
+   */
+  public boolean contains(SemanticVersion version) {
+    if (lower != null) {
+      int result = SemanticVersionComparators.compareIgnoringBuildMetadata(version, lower);
+      if (result < 0 || (result == 0 && !lowerInclusive)) {
+        return false;
+      }
+    }
+    if (upper != null) {
+      int result = SemanticVersionComparators.compareIgnoringBuildMetadata(version, upper);
+      return result < 0 || (result == 0 && upperInclusive);
+    }
+    return true;
+  }
+
+  /**
+   * Same as {@link #contains}.
+   */
+  @Override
+  public boolean test(SemanticVersion version) {
+    return contains(version);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof VersionRange that && !isEmpty() && !that.isEmpty()
+        && lowerInclusive == that.lowerInclusive && upperInclusive == that.upperInclusive
+        && Objects.equals(lower, that.lower) && Objects.equals(upper, that.upper);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(lower, lowerInclusive, upper, upperInclusive);
+  }
+
+  /**
+   * @return this range in Maven's interval notation, e.g. {@code [1.0.0,2.0.0-0)}, or {@code (,)} for all versions;
+   *     the empty range is {@code (0.0.0,0.0.0)}
+   */
+  @Override
+  public String toString() {
+    if (isEmpty()) {
+      return "(0.0.0,0.0.0)";
+    }
+    StringBuilder out = new StringBuilder().append(lowerInclusive ? '[' : '(');
+    if (lower != null) {
+      lower.formatTo(out);
+    }
+    out.append(',');
+    if (upper != null) {
+      upper.formatTo(out);
+    }
+    return out.append(upperInclusive ? ']' : ')').toString();
+  }
+}
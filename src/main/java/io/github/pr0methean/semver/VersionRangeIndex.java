@@ -0,0 +1,268 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable index over many values that each match a {@link VersionRangeSet} (for example, security advisories and
+ * their affected versions), which finds every value matching a given version in O(log n + k) time, where n is the total
+ * number of intervals and k the number of matches.
+ *
+ * <p>The index is a centered interval tree: each node holds the intervals that contain its center, sorted both by
+ * lower bound and by upper bound, and its subtrees hold the intervals entirely below and entirely above the center. A
+ * query descends one path, and at each node scans only the sorted list that ends at the first non-matching interval.
+ * The centers are medians of the lower bounds, so the tree has O(log n) depth.
+ *
+ * <p>{@link #matchingAll} answers a sorted batch of queries with a single sweep over the intervals instead.
+ *
+ * @param <T> the value type
+ */
+public final class VersionRangeIndex<T> {
+  private static final Comparator<SemanticVersion> ORDER = SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR;
+
+  /**
+   * Inclusive lower bounds of each interval; null means unbounded.
+   */
+  private final @Nullable SemanticVersion[] lowers;
+
+  /**
+   * Exclusive upper bounds of each interval; null means unbounded.
+   */
+  private final @Nullable SemanticVersion[] uppers;
+
+  /**
+   * The value each interval belongs to.
+   */
+  private final Object[] values;
+
+  private final int valueCount;
+  @Nullable private final Node root;
+
+  /**
+   * Interval indices sorted by lower bound, for {@link #matchingAll}.
+   */
+  private final int[] allByLower;
+
+  /**
+   * Interval indices sorted by upper bound, for {@link #matchingAll}.
+   */
+  private final int[] allByUpper;
+
+  private VersionRangeIndex(List<SemanticVersion> lowers, List<SemanticVersion> uppers, List<Object> values,
+      int valueCount) {
+    this.lowers = lowers.toArray(new SemanticVersion[0]);
+    this.uppers = uppers.toArray(new SemanticVersion[0]);
+    this.values = values.toArray();
+    this.valueCount = valueCount;
+    int[] all = new int[this.values.length];
+    Arrays.setAll(all, i -> i);
+    allByLower = sortedByLower(all);
+    allByUpper = sortedByUpper(all, false);
+    root = build(allByLower);
+  }
+
+  /**
+   * @param values the values to index
+   * @param ranges finds the versions each value matches
+   * @param <T> the value type
+   * @return an index over {@code values}
+   */
+  public static <T> VersionRangeIndex<T> of(Collection<? extends T> values,
+      Function<? super T, VersionRangeSet> ranges) {
+    List<SemanticVersion> lowers = new ArrayList<>();
+    List<SemanticVersion> uppers = new ArrayList<>();
+    List<Object> intervalValues = new ArrayList<>();
+    for (T value : values) {
+      for (VersionRange range : ranges.apply(value).ranges()) {
+        lowers.add(range.lower());
+        uppers.add(range.upper());
+        intervalValues.add(value);
+      }
+    }
+    return new VersionRangeIndex<>(lowers, uppers, intervalValues, values.size());
+  }
+
+  private int[] sortedByLower(int[] intervals) {
+    return Arrays.stream(intervals).boxed()
+        .sorted(Comparator.comparing(i -> lowers[i], Comparator.nullsFirst(ORDER)))
+        .mapToInt(Integer::intValue).toArray();
+  }
+
+  private int[] sortedByUpper(int[] intervals, boolean descending) {
+    Comparator<SemanticVersion> order = Comparator.nullsLast(ORDER);
+    return Arrays.stream(intervals).boxed()
+        .sorted(Comparator.comparing(i -> uppers[i], descending ? order.reversed() : order))
+        .mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @param byLower interval indices sorted by lower bound
+   */
+  @Nullable
+  private Node build(int[] byLower) {
+    if (byLower.length == 0) {
+      return null;
+    }
+    // Only the first intervals can be unbounded below; if they all are, they all contain MIN_VALUE
+    int firstBounded = 0;
+    while (firstBounded < byLower.length && lowers[byLower[firstBounded]] == null) {
+      firstBounded++;
+    }
+    SemanticVersion center = (firstBounded == byLower.length) ? SemanticVersion.MIN_VALUE
+        : lowers[byLower[(firstBounded + byLower.length) >>> 1]];
+    int[] left = new int[byLower.length];
+    int leftCount = 0;
+    int[] right = new int[byLower.length];
+    int rightCount = 0;
+    int[] here = new int[byLower.length];
+    int hereCount = 0;
+    for (int interval : byLower) {
+      @Nullable SemanticVersion lower = lowers[interval];
+      @Nullable SemanticVersion upper = uppers[interval];
+      if (upper != null && ORDER.compare(upper, center) <= 0) {
+        left[leftCount++] = interval;
+      } else if (lower != null && ORDER.compare(lower, center) > 0) {
+        right[rightCount++] = interval;
+      } else {
+        here[hereCount++] = interval;
+      }
+    }
+    int[] hereByLower = Arrays.copyOf(here, hereCount); // Still sorted, since byLower was
+    return new Node(center, hereByLower, sortedByUpper(hereByLower, true), build(Arrays.copyOf(left, leftCount)),
+        build(Arrays.copyOf(right, rightCount)));
+  }
+
+  /**
+   * @return the number of values indexed, including those that match no versions
+   */
+  public int size() {
+    return valueCount;
+  }
+
+  /**
+   * @param version the version to look up
+   * @return the values whose ranges contain {@code version}, ignoring its build metadata, in no particular order
+   */
+  public List<T> matching(SemanticVersion version) {
+    List<T> result = new ArrayList<>();
+    @Nullable Node node = root;
+    while (node != null) {
+      if (ORDER.compare(version, node.center) < 0) {
+        // Every interval here ends above the center, so it matches if it starts at or below the version
+        for (int interval : node.byLower) {
+          @Nullable SemanticVersion lower = lowers[interval];
+          if (lower != null && ORDER.compare(lower, version) > 0) {
+            break;
+          }
+          result.add(valueAt(interval));
+        }
+        node = node.left;
+      } else {
+        // Every interval here starts at or below the center, so it matches if it ends above the version
+        for (int interval : node.byUpperDescending) {
+          @Nullable SemanticVersion upper = uppers[interval];
+          if (upper != null && ORDER.compare(upper, version) <= 0) {
+            break;
+          }
+          result.add(valueAt(interval));
+        }
+        node = node.right;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Looks up many versions in one pass, which is faster than calling {@link #matching} for each when there are many
+   * versions.
+   * @param sortedVersions versions in ascending order under {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}
+   * @return for each version, the values whose ranges contain it, in no particular order
+   * @throws IllegalArgumentException if {@code sortedVersions} isn't sorted
+   */
+  public List<List<T>> matchingAll(List<? extends SemanticVersion> sortedVersions) {
+    List<List<T>> results = new ArrayList<>(sortedVersions.size());
+    // The active intervals, with O(1) insertion and removal by swapping with the last
+    int[] active = new int[values.length];
+    int[] positions = new int[values.length];
+    int activeCount = 0;
+    int nextToOpen = 0;
+    int nextToClose = 0;
+    @Nullable SemanticVersion previous = null;
+    for (SemanticVersion version : sortedVersions) {
+      if (previous != null && ORDER.compare(previous, version) > 0) {
+        throw new IllegalArgumentException("Versions aren't sorted: " + previous + " precedes " + version);
+      }
+      previous = version;
+      while (nextToOpen < allByLower.length) {
+        int interval = allByLower[nextToOpen];
+        @Nullable SemanticVersion lower = lowers[interval];
+        if (lower != null && ORDER.compare(lower, version) > 0) {
+          break;
+        }
+        positions[interval] = activeCount;
+        active[activeCount++] = interval;
+        nextToOpen++;
+      }
+      while (nextToClose < allByUpper.length) {
+        int interval = allByUpper[nextToClose];
+        @Nullable SemanticVersion upper = uppers[interval];
+        if (upper == null || ORDER.compare(upper, version) > 0) {
+          break;
+        }
+        // Already opened, since its lower bound is below its upper bound
+        int last = active[--activeCount];
+        active[positions[interval]] = last;
+        positions[last] = positions[interval];
+        nextToClose++;
+      }
+      List<T> result = new ArrayList<>(activeCount);
+      for (int i = 0; i < activeCount; i++) {
+        result.add(valueAt(active[i]));
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T valueAt(int interval) {
+    return (T) values[interval];
+  }
+
+  private static final class Node {
+    final SemanticVersion center;
+
+    /**
+     * The intervals containing {@link #center}, by ascending lower bound.
+     */
+    final int[] byLower;
+
+    /**
+     * The same intervals, by descending upper bound.
+     */
+    final int[] byUpperDescending;
+
+    /**
+     * The intervals that end at or below {@link #center}.
+     */
+    @Nullable final Node left;
+
+    /**
+     * The intervals that start above {@link #center}.
+     */
+    @Nullable final Node right;
+
+    Node(SemanticVersion center, int[] byLower, int[] byUpperDescending, @Nullable Node left, @Nullable Node right) {
+      this.center = center;
+      this.byLower = byLower;
+      this.byUpperDescending = byUpperDescending;
+      this.left = left;
+      this.right = right;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+
+/**
+ * An immutable union of {@link VersionRange}s in normal form: disjoint, non-adjacent half-open intervals
+ * {@code [least, end)}, sorted by their lower bounds. Because the form is unique, two sets contain the same versions
+ * exactly when they're {@link #equals equal}, and {@link #union}, {@link #intersection} and {@link #complement} are
+ * single merge passes over the interval lists, taking O(k) time for k intervals.
+ *
+ * <p>Inclusive upper bounds and exclusive lower bounds are converted using the exact successor of the bound under
+ * {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR}, so e.g. {@code [1.0.0,1.0.0]} becomes
+ * {@code [1.0.0,1.0.1-0)}, and {@code (,1.0.0-0]} and {@code [1.0.0-0.0,)} together make up every version.
+ */
+public final class VersionRangeSet implements Predicate<SemanticVersion> {
+  private static final VersionRangeSet EMPTY = new VersionRangeSet(new SemanticVersion[0]);
+  private static final VersionRangeSet ALL = new VersionRangeSet(new SemanticVersion[] {null, null});
+
+  /**
+   * Alternating inclusive lower and exclusive upper bounds. Only the first lower bound can be null, meaning there is
+   * none, and only the last upper bound can be null, meaning there is none.
+   */
+  private final @Nullable SemanticVersion[] bounds;
+
+  private VersionRangeSet(@Nullable SemanticVersion[] bounds) {
+    this.bounds = bounds;
+  }
+
+  /**
+   * @return the set containing every version
+   */
+  public static VersionRangeSet all() {
+    return ALL;
+  }
+
+  /**
+   * @return the set containing no versions
+   */
+  public static VersionRangeSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the union of the given ranges
+   */
+  public static VersionRangeSet of(VersionRange... ranges) {
+    return of(Arrays.asList(ranges));
+  }
+
+  /**
+   * @return the union of the given ranges
+   */
+  public static VersionRangeSet of(Collection<VersionRange> ranges) {
+    List<VersionRange> sorted = new ArrayList<>(ranges.size());
+    for (VersionRange range : ranges) {
+      if (!range.isEmpty()) {
+        sorted.add(range);
+      }
+    }
+    sorted.sort(Comparator.comparing(VersionRangeSet::least, VersionRangeSet::compareLower));
+    Builder builder = new Builder(sorted.size());
+    for (VersionRange range : sorted) {
+      builder.add(least(range), range.end());
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the least member of a non-empty range, or null if it's unbounded below
+   */
+  @Nullable
+  private static SemanticVersion least(VersionRange range) {
+    @Nullable SemanticVersion least = range.leastMember();
+    // Nothing precedes MIN_VALUE, so starting there is the same as having no lower bound
+    return (least == null || compare(least, SemanticVersion.MIN_VALUE) == 0) ? null : least;
+  }
+
+  private static int compare(SemanticVersion v1, SemanticVersion v2) {
+    return SemanticVersionComparators.compareIgnoringBuildMetadata(v1, v2);
+  }
+
+  /**
+   * Compares lower bounds, where null means unbounded.
+   */
+  private static int compareLower(@Nullable SemanticVersion v1, @Nullable SemanticVersion v2) {
+    if (v1 == null || v2 == null) {
+      return (v1 == null) ? ((v2 == null) ? 0 : -1) : 1;
+    }
+    return compare(v1, v2);
+  }
+
+  /**
+   * Compares upper bounds, where null means unbounded.
+   */
+  private static int compareUpper(@Nullable SemanticVersion v1, @Nullable SemanticVersion v2) {
+    if (v1 == null || v2 == null) {
+      return (v1 == null) ? ((v2 == null) ? 0 : 1) : -1;
+    }
+    return compare(v1, v2);
+  }
+
+  /**
+   * @return whether an interval with the given lower bound would start at or before the end of one with the given
+   *     upper bound, i.e. whether the two would overlap or touch
+   */
+  private static boolean startsByEnd(@Nullable SemanticVersion lower, @Nullable SemanticVersion upper) {
+    return lower == null || upper == null || compare(lower, upper) <= 0;
+  }
+
+  int intervalCount() {
+    return bounds.length >> 1;
+  }
+
+  @Nullable
+  SemanticVersion lowerAt(int interval) {
+    return bounds[interval << 1];
+  }
+
+  @Nullable
+  SemanticVersion upperAt(int interval) {
+    return bounds[(interval << 1) + 1];
+  }
+
+  public boolean isEmpty() {
+    return bounds.length == 0;
+  }
+
+  /**
+   * @return the intervals of this set, each with an inclusive lower bound (unless it has none) and an exclusive upper
+   *     bound (unless it has none)
+   */
+  public List<VersionRange> ranges() {
+    List<VersionRange> ranges = new ArrayList<>(intervalCount());
+    for (int i = 0; i < intervalCount(); i++) {
+      ranges.add(VersionRange.between(lowerAt(i), true, upperAt(i), false));
+    }
+    return List.copyOf(ranges);
+  }
+
+  /**
+   * @param version the version to look up
+   * @return true if {@code version} is in this set, ignoring its build metadata; takes O(log k) time
+   */
+  public boolean contains(SemanticVersion version) {
+    // Find the last interval whose lower bound is at or below version
+    int low = 0;
+    int high = intervalCount() - 1;
+    int found = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      @Nullable SemanticVersion lower = lowerAt(mid);
+      if (lower == null || compare(lower, version) <= 0) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (found < 0) {
+      return false;
+    }
+    @Nullable SemanticVersion upper = upperAt(found);
+    return upper == null || compare(version, upper) < 0;
+  }
+
+  /**
+   * Same as {@link #contains}.
+   */
+  @Override
+  public boolean test(SemanticVersion version) {
+    return contains(version);
+  }
+
+  /**
+   * @return the set of versions in either this set or {@code other}
+   */
+  public VersionRangeSet union(VersionRangeSet other) {
+    if (isEmpty() || other == ALL) {
+      return other;
+    }
+    if (other.isEmpty() || this == ALL) {
+      return this;
+    }
+    Builder builder = new Builder(intervalCount() + other.intervalCount());
+    int i = 0;
+    int j = 0;
+    while (i < intervalCount() || j < other.intervalCount()) {
+      if (j == other.intervalCount()
+          || (i < intervalCount() && compareLower(lowerAt(i), other.lowerAt(j)) <= 0)) {
+        builder.add(lowerAt(i), upperAt(i));
+        i++;
+      } else {
+        builder.add(other.lowerAt(j), other.upperAt(j));
+        j++;
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the set of versions in both this set and {@code other}
+   */
+  public VersionRangeSet intersection(VersionRangeSet other) {
+    if (isEmpty() || other == ALL) {
+      return this;
+    }
+    if (other.isEmpty() || this == ALL) {
+      return other;
+    }
+    // Pieces of different input intervals can neither overlap nor touch, so they go straight into the result
+    List<SemanticVersion> result = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    while (i < intervalCount() && j < other.intervalCount()) {
+      @Nullable SemanticVersion lower = (compareLower(lowerAt(i), other.lowerAt(j)) >= 0) ? lowerAt(i)
+          : other.lowerAt(j);
+      @Nullable SemanticVersion upper = (compareUpper(upperAt(i), other.upperAt(j)) <= 0) ? upperAt(i)
+          : other.upperAt(j);
+      if (lower == null || upper == null || compare(lower, upper) < 0) {
+        result.add(lower);
+        result.add(upper);
+      }
+      if (compareUpper(upperAt(i), other.upperAt(j)) <= 0) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return result.isEmpty() ? EMPTY : new VersionRangeSet(result.toArray(new SemanticVersion[0]));
+  }
+
+  /**
+   * @return whether some version is in both this set and {@code other}; equivalent to, but cheaper than,
+   *     {@code !intersection(other).isEmpty()}
+   */
+  public boolean intersects(VersionRangeSet other) {
+    int i = 0;
+    int j = 0;
+    while (i < intervalCount() && j < other.intervalCount()) {
+      @Nullable SemanticVersion lower = (compareLower(lowerAt(i), other.lowerAt(j)) >= 0) ? lowerAt(i)
+          : other.lowerAt(j);
+      @Nullable SemanticVersion upper = (compareUpper(upperAt(i), other.upperAt(j)) <= 0) ? upperAt(i)
+          : other.upperAt(j);
+      if (lower == null || upper == null || compare(lower, upper) < 0) {
+        return true;
+      }
+      if (compareUpper(upperAt(i), other.upperAt(j)) <= 0) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the set of versions not in this set
+   */
+  public VersionRangeSet complement() {
+    if (isEmpty()) {
+      return ALL;
+    }
+    if (this == ALL) {
+      return EMPTY;
+    }
+    List<SemanticVersion> result = new ArrayList<>(bounds.length + 2);
+    if (lowerAt(0) != null) {
+      result.add(null);
+      result.add(lowerAt(0));
+    }
+    for (int i = 0; i < intervalCount(); i++) {
+      @Nullable SemanticVersion upper = upperAt(i);
+      if (upper != null) {
+        result.add(upper);
+        result.add((i + 1 < intervalCount()) ? lowerAt(i + 1) : null);
+      }
+    }
+    return result.isEmpty() ? EMPTY : new VersionRangeSet(result.toArray(new SemanticVersion[0]));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof VersionRangeSet that && Arrays.equals(bounds, that.bounds));
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(bounds);
+  }
+
+  /**
+   * @return this set as a list of intervals in Maven's notation, which {@link VersionConstraint#parse} accepts
+   */
+  @Override
+  public String toString() {
+    if (isEmpty()) {
+      return VersionRange.empty().toString();
+    }
+    StringJoiner joiner = new StringJoiner(",");
+    for (VersionRange range : ranges()) {
+      joiner.add(range.toString());
+    }
+    return joiner.toString();
+  }
+
+  /**
+   * Accumulates intervals given in order of their lower bounds, merging any that overlap or touch.
+   */
+  private static final class Builder {
+    private final List<SemanticVersion> bounds;
+
+    Builder(int expectedIntervals) {
+      bounds = new ArrayList<>(expectedIntervals << 1);
+    }
+
+    void add(@Nullable SemanticVersion lower, @Nullable SemanticVersion upper) {
+      int last = bounds.size() - 1;
+      if (last > 0 && startsByEnd(lower, bounds.get(last))) {
+        if (compareUpper(upper, bounds.get(last)) > 0) {
+          bounds.set(last, upper);
+        }
+      } else {
+        bounds.add(lower);
+        bounds.add(upper);
+      }
+    }
+
+    VersionRangeSet build() {
+      if (bounds.isEmpty()) {
+        return EMPTY;
+      }
+      if (bounds.size() == 2 && bounds.get(0) == null && bounds.get(1) == null) {
+        return ALL;
+      }
+      return new VersionRangeSet(bounds.toArray(new SemanticVersion[0]));
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the published versions of many artifacts and answers "latest" queries about them while new versions are
+ * being added. Each artifact's versions are held in an immutable {@link Snapshot}, which is replaced as a whole on each
+ * update, so readers never lock or see a half-applied update. Updates to the same artifact are serialized by
+ * {@link ConcurrentHashMap#compute}, which locks only that artifact's bin, so ingestion for different artifacts
+ * proceeds in parallel.
+ *
+ * <p>Versions are ordered by {@link SemanticVersion#TOTAL_ORDERING}, so versions that differ only in build metadata
+ * are distinct entries. The latest release in each major version and in each minor version is kept up to date on every
+ * change, so all the queries below take O(log n) time at most.
+ *
+ * @param <K> the artifact ID type
+ */
+public final class VersionRegistry<K> {
+  private final ConcurrentHashMap<K, Snapshot> artifacts = new ConcurrentHashMap<>();
+
+  /**
+   * @param artifact the artifact ID
+   * @param version a published version of that artifact
+   * @return true if the version wasn't already registered
+   */
+  public boolean register(K artifact, SemanticVersion version) {
+    Objects.requireNonNull(version);
+    boolean[] added = new boolean[1];
+    artifacts.compute(artifact, (key, snapshot) -> {
+      Snapshot oldSnapshot = (snapshot == null) ? Snapshot.EMPTY : snapshot;
+      Snapshot newSnapshot = oldSnapshot.with(version);
+      added[0] = newSnapshot != oldSnapshot;
+      return newSnapshot;
+    });
+    return added[0];
+  }
+
+  /**
+   * @param artifact the artifact ID
+   * @param version a version to forget
+   * @return true if the version was registered
+   */
+  public boolean unregister(K artifact, SemanticVersion version) {
+    Objects.requireNonNull(version);
+    boolean[] removed = new boolean[1];
+    artifacts.computeIfPresent(artifact, (key, snapshot) -> {
+      Snapshot newSnapshot = snapshot.without(version);
+      removed[0] = newSnapshot != snapshot;
+      return newSnapshot.versions().isEmpty() ? null : newSnapshot;
+    });
+    return removed[0];
+  }
+
+  /**
+   * @return an unmodifiable view of the IDs of artifacts with at least one registered version
+   */
+  public Set<K> artifacts() {
+    return Collections.unmodifiableSet(artifacts.keySet());
+  }
+
+  /**
+   * @param artifact the artifact ID
+   * @return the artifact's versions as of now; an empty snapshot if it has none
+   */
+  public Snapshot snapshot(K artifact) {
+    @Nullable Snapshot snapshot = artifacts.get(artifact);
+    return (snapshot == null) ? Snapshot.EMPTY : snapshot;
+  }
+
+  /**
+   * @return the artifact's greatest version, which may be a prerelease, or null if it has none
+   */
+  @Nullable
+  public SemanticVersion latest(K artifact) {
+    return snapshot(artifact).latest();
+  }
+
+  /**
+   * @return the artifact's greatest release version, or null if it has none
+   */
+  @Nullable
+  public SemanticVersion latestRelease(K artifact) {
+    return snapshot(artifact).latestRelease();
+  }
+
+  /**
+   * @return the artifact's greatest release version with the given major version, or null if it has none
+   */
+  @Nullable
+  public SemanticVersion latestReleaseInMajor(K artifact, @Unsigned long major) {
+    return snapshot(artifact).latestReleaseInMajor(major);
+  }
+
+  /**
+   * @return the artifact's greatest release version with the given major and minor versions, or null if it has none
+   */
+  @Nullable
+  public SemanticVersion latestReleaseInMinor(K artifact, @Unsigned long major, @Unsigned long minor) {
+    return snapshot(artifact).latestReleaseInMinor(major, minor);
+  }
+
+  /**
+   * The versions of one artifact at one point in time.
+   */
+  public static final class Snapshot {
+    static final Snapshot EMPTY = new Snapshot(PersistentVersionMap.empty(), PersistentVersionMap.empty(),
+        PersistentVersionMap.empty());
+
+    /**
+     * Each version mapped to itself.
+     */
+    private final PersistentVersionMap<SemanticVersion> versions;
+
+    /**
+     * Maps {@code M.0.0} to the latest release with major version M.
+     */
+    private final PersistentVersionMap<SemanticVersion> latestByMajor;
+
+    /**
+     * Maps {@code M.m.0} to the latest release with major version M and minor version m.
+     */
+    private final PersistentVersionMap<SemanticVersion> latestByMinor;
+
+    private Snapshot(PersistentVersionMap<SemanticVersion> versions,
+        PersistentVersionMap<SemanticVersion> latestByMajor, PersistentVersionMap<SemanticVersion> latestByMinor) {
+      this.versions = versions;
+      this.latestByMajor = latestByMajor;
+      this.latestByMinor = latestByMinor;
+    }
+
+    private static SemanticVersion majorKey(@Unsigned long major) {
+      return SemanticVersionImpl.of(major, 0, 0, null, null);
+    }
+
+    private static SemanticVersion minorKey(@Unsigned long major, @Unsigned long minor) {
+      return SemanticVersionImpl.of(major, minor, 0, null, null);
+    }
+
+    Snapshot with(SemanticVersion version) {
+      if (versions.containsKey(version)) {
+        return this;
+      }
+      PersistentVersionMap<SemanticVersion> newVersions = versions.with(version, version);
+      if (version.isPrerelease()) {
+        return new Snapshot(newVersions, latestByMajor, latestByMinor);
+      }
+      return new Snapshot(newVersions, raise(latestByMajor, majorKey(version.majorVersion()), version),
+          raise(latestByMinor, minorKey(version.majorVersion(), version.minorVersion()), version));
+    }
+
+    private static PersistentVersionMap<SemanticVersion> raise(PersistentVersionMap<SemanticVersion> maxima,
+        SemanticVersion line, SemanticVersion version) {
+      @Nullable SemanticVersion current = maxima.get(line);
+      return (current == null || SemanticVersion.TOTAL_ORDERING.compare(version, current) > 0)
+          ? maxima.with(line, version) : maxima;
+    }
+
+    Snapshot without(SemanticVersion version) {
+      if (!versions.containsKey(version)) {
+        return this;
+      }
+      PersistentVersionMap<SemanticVersion> newVersions = versions.without(version);
+      if (version.isPrerelease()) {
+        return new Snapshot(newVersions, latestByMajor, latestByMinor);
+      }
+      @Unsigned long major = version.majorVersion();
+      @Unsigned long minor = version.minorVersion();
+      PersistentVersionMap<SemanticVersion> newLatestByMajor = latestByMajor;
+      PersistentVersionMap<SemanticVersion> newLatestByMinor = latestByMinor;
+      if (version.equals(latestByMajor.get(majorKey(major)))) {
+        @Nullable SemanticVersion replacement = previousReleaseInMajor(newVersions, version);
+        newLatestByMajor = (replacement == null) ? latestByMajor.without(majorKey(major))
+            : latestByMajor.with(majorKey(major), replacement);
+      }
+      if (version.equals(latestByMinor.get(minorKey(major, minor)))) {
+        @Nullable SemanticVersion replacement = previousReleaseInMinor(newVersions, version);
+        newLatestByMinor = (replacement == null) ? latestByMinor.without(minorKey(major, minor))
+            : latestByMinor.with(minorKey(major, minor), replacement);
+      }
+      return new Snapshot(newVersions, newLatestByMajor, newLatestByMinor);
+    }
+
+    /**
+     * Finds the release that precedes {@code removed}, which was its major line's latest release, if it's in the same
+     * major line.
+     */
+    @Nullable
+    private static SemanticVersion previousReleaseInMajor(PersistentVersionMap<SemanticVersion> versions,
+        SemanticVersion removed) {
+      @Nullable SemanticVersion candidate = previousRelease(versions, removed);
+      return (candidate == null || candidate.majorVersion() != removed.majorVersion()) ? null : candidate;
+    }
+
+    /**
+     * Finds the release that precedes {@code removed}, which was its minor line's latest release, if it's in the same
+     * minor line.
+     */
+    @Nullable
+    private static SemanticVersion previousReleaseInMinor(PersistentVersionMap<SemanticVersion> versions,
+        SemanticVersion removed) {
+      @Nullable SemanticVersion candidate = previousReleaseInMajor(versions, removed);
+      return (candidate == null || candidate.minorVersion() != removed.minorVersion()) ? null : candidate;
+    }
+
+    @Nullable
+    private static SemanticVersion previousRelease(PersistentVersionMap<SemanticVersion> versions,
+        SemanticVersion removed) {
+      @Nullable Map.Entry<SemanticVersion, SemanticVersion> entry = versions.latestReleaseBefore(removed);
+      return (entry == null) ? null : entry.getKey();
+    }
+
+    /**
+     * @return all versions in this snapshot, each mapped to itself
+     */
+    public PersistentVersionMap<SemanticVersion> versions() {
+      return versions;
+    }
+
+    /**
+     * @return the greatest version, which may be a prerelease, or null if there are none
+     */
+    @Nullable
+    public SemanticVersion latest() {
+      @Nullable Map.Entry<SemanticVersion, SemanticVersion> entry = versions.lastEntry();
+      return (entry == null) ? null : entry.getKey();
+    }
+
+    /**
+     * @return the greatest release version, or null if there are none
+     */
+    @Nullable
+    public SemanticVersion latestRelease() {
+      @Nullable Map.Entry<SemanticVersion, SemanticVersion> entry = versions.latestRelease();
+      return (entry == null) ? null : entry.getKey();
+    }
+
+    /**
+     * @return the greatest release version with the given major version, or null if there are none
+     */
+    @Nullable
+    public SemanticVersion latestReleaseInMajor(@Unsigned long major) {
+      return latestByMajor.get(majorKey(major));
+    }
+
+    /**
+     * @return the greatest release version with the given major and minor versions, or null if there are none
+     */
+    @Nullable
+    public SemanticVersion latestReleaseInMinor(@Unsigned long major, @Unsigned long minor) {
+      return latestByMinor.get(minorKey(major, minor));
+    }
+  }
+}
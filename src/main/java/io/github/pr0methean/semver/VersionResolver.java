@@ -0,0 +1,213 @@
+package io.github.pr0methean.semver;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, sorted list of candidate versions that finds the highest one satisfying a {@link VersionConstraint}
+ * by binary search over each of the constraint's intervals, rather than by testing every candidate.
+ *
+ * <p>Like npm, resolution can exclude prereleases unless the constraint names a prerelease with the same major, minor
+ * and patch versions; e.g. {@code >=1.2.3-beta} then allows {@code 1.2.3-rc} and {@code 1.2.3} but not
+ * {@code 1.3.0-rc}. For this, the release candidates are also kept in an array of their own.
+ */
+public final class VersionResolver {
+  private static final Comparator<SemanticVersion> ORDER = SemanticVersion.TOTAL_ORDERING;
+
+  /**
+   * Every candidate, in ascending order under {@link SemanticVersion#TOTAL_ORDERING}, without duplicates.
+   */
+  private final SemanticVersion[] candidates;
+
+  /**
+   * The candidates that aren't prereleases, in the same order.
+   */
+  private final SemanticVersion[] releases;
+
+  private VersionResolver(SemanticVersion[] candidates) {
+    this.candidates = candidates;
+    releases = Arrays.stream(candidates).filter(version -> !version.isPrerelease()).toArray(SemanticVersion[]::new);
+  }
+
+  /**
+   * @param candidates the versions to choose from, in any order; duplicates are ignored
+   * @return a resolver over {@code candidates}
+   */
+  public static VersionResolver of(Collection<? extends SemanticVersion> candidates) {
+    SemanticVersion[] sorted = candidates.toArray(new SemanticVersion[0]);
+    Arrays.sort(sorted, ORDER);
+    int size = 0;
+    for (SemanticVersion version : sorted) {
+      if (size == 0 || ORDER.compare(sorted[size - 1], version) != 0) {
+        sorted[size++] = version;
+      }
+    }
+    return new VersionResolver(Arrays.copyOf(sorted, size));
+  }
+
+  /**
+   * @return the candidates, in ascending order under {@link SemanticVersion#TOTAL_ORDERING}
+   */
+  public List<SemanticVersion> candidates() {
+    return List.of(candidates);
+  }
+
+  /**
+   * Finds the highest candidate that satisfies {@code constraint}, in O(k log n) time for a constraint of k intervals.
+   * Candidates with the same precedence are ranked by {@link SemanticVersion#TOTAL_ORDERING}.
+   *
+   * @param constraint the constraint to satisfy
+   * @param includePrereleases if false, prereleases are excluded unless {@code constraint} names a prerelease with the
+   *     same major, minor and patch versions
+   * @return the highest matching candidate, or null if there is none
+   */
+  @Nullable
+  public SemanticVersion highest(VersionConstraint constraint, boolean includePrereleases) {
+    if (includePrereleases) {
+      return highestIn(candidates, constraint.rangeSet());
+    }
+    return max(highestIn(releases, constraint.rangeSet()), highestIn(candidates, constraint.namedPrereleaseLines()));
+  }
+
+  /**
+   * Answers {@link #highest} for many constraints at once, by sorting all their intervals by upper bound and then
+   * sweeping through the candidates once, which beats a binary search per interval when there are more intervals than
+   * candidates.
+   *
+   * @param constraints the constraints to satisfy
+   * @param includePrereleases as for {@link #highest}
+   * @return for each constraint, the highest matching candidate, or null if there is none; the list may contain nulls
+   */
+  public List<SemanticVersion> highestAll(List<VersionConstraint> constraints, boolean includePrereleases) {
+    List<Interval> intervals = new ArrayList<>();
+    List<Interval> prereleaseIntervals = new ArrayList<>();
+    for (int i = 0; i < constraints.size(); i++) {
+      VersionConstraint constraint = constraints.get(i);
+      addIntervals(constraint.rangeSet(), i, intervals);
+      if (!includePrereleases) {
+        addIntervals(constraint.namedPrereleaseLines(), i, prereleaseIntervals);
+      }
+    }
+    @Nullable SemanticVersion[] results = new SemanticVersion[constraints.size()];
+    sweep(includePrereleases ? candidates : releases, intervals, results);
+    sweep(candidates, prereleaseIntervals, results);
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Resolves one constraint per artifact, using all available processors, for when each artifact has its own
+   * candidates.
+   *
+   * @param resolvers the candidates for each artifact
+   * @param constraints the constraint for each artifact; artifacts with no resolver match nothing
+   * @param includePrereleases as for {@link #highest}
+   * @param <K> the artifact type
+   * @return the highest matching candidate for each artifact that has one
+   */
+  public static <K> Map<K, SemanticVersion> highestInParallel(Map<K, VersionResolver> resolvers,
+      Map<K, VersionConstraint> constraints, boolean includePrereleases) {
+    Map<K, SemanticVersion> results = new ConcurrentHashMap<>();
+    constraints.entrySet().parallelStream().forEach(entry -> {
+      @Nullable VersionResolver resolver = resolvers.get(entry.getKey());
+      if (resolver != null) {
+        @Nullable SemanticVersion highest = resolver.highest(entry.getValue(), includePrereleases);
+        if (highest != null) {
+          results.put(entry.getKey(), highest);
+        }
+      }
+    });
+    return results;
+  }
+
+  private static int compare(SemanticVersion v1, SemanticVersion v2) {
+    return SemanticVersionComparators.compareIgnoringBuildMetadata(v1, v2);
+  }
+
+  @Nullable
+  private static SemanticVersion max(@Nullable SemanticVersion v1, @Nullable SemanticVersion v2) {
+    if (v1 == null || v2 == null) {
+      return (v1 == null) ? v2 : v1;
+    }
+    return (ORDER.compare(v1, v2) >= 0) ? v1 : v2;
+  }
+
+  /**
+   * @return the number of versions in {@code sorted}, before index {@code end}, that precede {@code upper}
+   */
+  private static int countBelow(SemanticVersion[] sorted, int end, SemanticVersion upper) {
+    int low = 0;
+    int high = end;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(sorted[mid], upper) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Nullable
+  private static SemanticVersion highestIn(SemanticVersion[] sorted, VersionRangeSet set) {
+    int end = sorted.length;
+    for (int i = set.intervalCount() - 1; i >= 0 && end > 0; i--) {
+      @Nullable SemanticVersion upper = set.upperAt(i);
+      if (upper != null) {
+        end = countBelow(sorted, end, upper);
+        if (end == 0) {
+          return null;
+        }
+      }
+      @Nullable SemanticVersion lower = set.lowerAt(i);
+      SemanticVersion highest = sorted[end - 1];
+      if (lower == null || compare(highest, lower) >= 0) {
+        return highest;
+      }
+    }
+    return null;
+  }
+
+  private static void addIntervals(VersionRangeSet set, int constraint, List<Interval> intervals) {
+    for (int i = 0; i < set.intervalCount(); i++) {
+      intervals.add(new Interval(set.lowerAt(i), set.upperAt(i), constraint));
+    }
+  }
+
+  /**
+   * Finds the highest version in each interval, and merges it into the result for that interval's constraint.
+   */
+  private static void sweep(SemanticVersion[] sorted, List<Interval> intervals,
+      @Nullable SemanticVersion[] results) {
+    intervals.sort(Comparator.comparing(Interval::upper, Comparator.nullsLast(ORDER)));
+    int end = 0;
+    for (Interval interval : intervals) {
+      @Nullable SemanticVersion upper = interval.upper();
+      if (upper == null) {
+        end = sorted.length;
+      } else {
+        while (end < sorted.length && compare(sorted[end], upper) < 0) {
+          end++;
+        }
+      }
+      if (end > 0) {
+        SemanticVersion highest = sorted[end - 1];
+        @Nullable SemanticVersion lower = interval.lower();
+        if (lower == null || compare(highest, lower) >= 0) {
+          results[interval.constraint()] = max(results[interval.constraint()], highest);
+        }
+      }
+    }
+  }
+
+  /**
+   * One interval of a constraint's {@link VersionRangeSet}, with an inclusive lower and exclusive upper bound.
+   */
+  private record Interval(@Nullable SemanticVersion lower, @Nullable SemanticVersion upper, int constraint) {}
+}
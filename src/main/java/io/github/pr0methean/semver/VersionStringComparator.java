@@ -0,0 +1,178 @@
+package io.github.pr0methean.semver;
+
+import java.util.Comparator;
+
+/**
+ * Compares version strings by semantic version precedence without parsing them: both strings are scanned in lockstep,
+ * comparing digit runs by length and then by digit, so no objects are created and no number can overflow. The order
+ * matches parsing both strings with {@link SemanticVersion#valueOf(String)} and comparing the results, so it suits
+ * sorting large batches of tags or artifact listings that are never kept as SemanticVersion instances.
+ *
+ * <p>Only the standard syntax is supported, not the lenient variations. The non-validating instances assume that
+ * their inputs are valid and give an unspecified (but non-throwing) result if they aren't; the validating instances
+ * check each input first and throw the same exceptions as {@link SemanticVersion#valueOf(String)}.
+ */
+public final class VersionStringComparator implements Comparator<CharSequence> {
+  /**
+   * Orders strings as {@link SemanticVersion#BUILD_METADATA_AGNOSTIC_COMPARATOR} orders the versions they represent.
+   */
+  public static final VersionStringComparator BUILD_METADATA_AGNOSTIC = new VersionStringComparator(false, false);
+
+  /**
+   * Orders strings as {@link SemanticVersion#TOTAL_ORDERING} orders the versions they represent.
+   */
+  public static final VersionStringComparator TOTAL = new VersionStringComparator(true, false);
+
+  /**
+   * Like {@link #BUILD_METADATA_AGNOSTIC}, but throws {@link IllegalArgumentException} (or its subclass
+   * {@link NumberFormatException}) when either input isn't a valid semantic version.
+   */
+  public static final VersionStringComparator VALIDATING_BUILD_METADATA_AGNOSTIC
+      = new VersionStringComparator(false, true);
+
+  /**
+   * Like {@link #TOTAL}, but throws {@link IllegalArgumentException} (or its subclass {@link NumberFormatException})
+   * when either input isn't a valid semantic version.
+   */
+  public static final VersionStringComparator VALIDATING_TOTAL = new VersionStringComparator(true, true);
+
+  private final boolean total;
+  private final boolean validating;
+
+  private VersionStringComparator(boolean total, boolean validating) {
+    this.total = total;
+    this.validating = validating;
+  }
+
+  @Override
+  public int compare(CharSequence a, CharSequence b) {
+    if (validating) {
+      SemanticVersionParser.validate(a, false);
+      SemanticVersionParser.validate(b, false);
+    }
+    int aLength = a.length();
+    int bLength = b.length();
+    int i = 0;
+    int j = 0;
+
+    // Major, minor and patch versions
+    for (int component = 0; component < 3; component++) {
+      int aEnd = digitsEnd(a, i);
+      int bEnd = digitsEnd(b, j);
+      int result = compareDigitRuns(a, i, aEnd, b, j, bEnd);
+      if (result != 0) {
+        return result;
+      }
+      i = (component < 2) ? Math.min(aEnd + 1, aLength) : aEnd; // skip '.'
+      j = (component < 2) ? Math.min(bEnd + 1, bLength) : bEnd;
+    }
+
+    // Prerelease identifiers
+    boolean aPrerelease = i < aLength && a.charAt(i) == '-';
+    boolean bPrerelease = j < bLength && b.charAt(j) == '-';
+    if (aPrerelease != bPrerelease) {
+      return aPrerelease ? -1 : 1; // Prereleases come first
+    }
+    if (aPrerelease) {
+      do {
+        i++; // skip '-' or '.'
+        j++;
+        int aDigitsEnd = digitsEnd(a, i);
+        int bDigitsEnd = digitsEnd(b, j);
+        boolean aNumeric = aDigitsEnd > i;
+        boolean bNumeric = bDigitsEnd > j;
+        if (aNumeric != bNumeric) {
+          return aNumeric ? -1 : 1; // Numeric comes first
+        }
+        if (aNumeric) {
+          int result = compareDigitRuns(a, i, aDigitsEnd, b, j, bDigitsEnd);
+          if (result != 0) {
+            return result;
+          }
+        }
+        i = identifierEnd(a, aDigitsEnd);
+        j = identifierEnd(b, bDigitsEnd);
+        int result = compareChars(a, aDigitsEnd, i, b, bDigitsEnd, j);
+        if (result != 0) {
+          return result;
+        }
+        boolean aMore = i < aLength && a.charAt(i) == '.';
+        boolean bMore = j < bLength && b.charAt(j) == '.';
+        if (aMore != bMore) {
+          return aMore ? 1 : -1; // Sort prerelease identifier lists lexicographically
+        }
+        if (!aMore) {
+          break;
+        }
+      } while (true);
+    }
+    if (!total) {
+      return 0;
+    }
+
+    // Build metadata, where none sorts first
+    boolean aMetadata = i < aLength;
+    boolean bMetadata = j < bLength;
+    if (aMetadata != bMetadata) {
+      return aMetadata ? 1 : -1;
+    }
+    return aMetadata ? compareChars(a, i + 1, aLength, b, j + 1, bLength) : 0;
+  }
+
+  private static int digitsEnd(CharSequence input, int start) {
+    int pos = start;
+    int length = input.length();
+    while (pos < length) {
+      char c = input.charAt(pos);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int identifierEnd(CharSequence input, int start) {
+    int pos = start;
+    int length = input.length();
+    while (pos < length) {
+      char c = input.charAt(pos);
+      if (c == '.' || c == '+') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  /**
+   * Compares two runs of decimal digits numerically, ignoring leading zeros.
+   */
+  private static int compareDigitRuns(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+    while (aStart < aEnd && a.charAt(aStart) == '0') {
+      aStart++;
+    }
+    while (bStart < bEnd && b.charAt(bStart) == '0') {
+      bStart++;
+    }
+    int result = Integer.compare(aEnd - aStart, bEnd - bStart);
+    return (result != 0) ? result : compareChars(a, aStart, aEnd, b, bStart, bEnd);
+  }
+
+  /**
+   * Compares two ranges as {@link String#compareTo} would compare them as substrings.
+   */
+  private static int compareChars(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+    int aLength = aEnd - aStart;
+    int bLength = bEnd - bStart;
+    int commonLength = Math.min(aLength, bLength);
+    for (int k = 0; k < commonLength; k++) {
+      char aChar = a.charAt(aStart + k);
+      char bChar = b.charAt(bStart + k);
+      if (aChar != bChar) {
+        return aChar - bChar;
+      }
+    }
+    return aLength - bLength;
+  }
+}
@@ -0,0 +1,287 @@
+package io.github.pr0methean.semver;
+
+import org.checkerframework.checker.signedness.qual.Unsigned;
+
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary format for SemanticVersion instances, independent of Java serialization (which also uses it, through
+ * a serialization proxy). The layout is a flag byte ({@code 1} if there are prerelease identifiers, plus {@code 2} if
+ * there is build metadata); the major, minor and patch versions as unsigned LEB128 varints; if flagged, the number of
+ * prerelease identifiers as a varint, then each identifier as a varint header {@code (suffixLength << 1) |
+ * hasNumericPart}, the numeric part as a varint if present, and the ASCII suffix; and if flagged, the UTF-8 length of
+ * the build metadata as a varint, followed by its UTF-8 bytes. A version like {@code 1.2.3} takes four bytes.
+ */
+public final class WireFormat {
+  private static final int HAS_PRERELEASE = 1;
+  private static final int HAS_BUILD_METADATA = 2;
+  private static final int KNOWN_FLAGS = HAS_PRERELEASE | HAS_BUILD_METADATA;
+
+  /**
+   * The most elements or bytes to allocate for before they've arrived, so that a corrupt count or length can't force a
+   * huge allocation from a few bytes of input.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+  private WireFormat() {}
+
+  /**
+   * @param version the version to measure
+   * @return the number of bytes {@link #writeTo(SemanticVersion, ByteBuffer)} will write for {@code version}
+   */
+  public static int encodedLength(SemanticVersion version) {
+    int length = 1 + varintLength(version.majorVersion()) + varintLength(version.minorVersion())
+        + varintLength(version.patchVersion());
+    if (version.isPrerelease()) {
+      PrereleaseIdentifier[] identifiers = prereleaseIdentifiers(version);
+      length += varintLength(identifiers.length);
+      for (PrereleaseIdentifier identifier : identifiers) {
+        length += encodedLength(identifier);
+      }
+    }
+    @Nullable String buildMetadata = version.buildMetadata();
+    if (buildMetadata != null) {
+      int utf8Length = buildMetadata.getBytes(StandardCharsets.UTF_8).length;
+      length += varintLength(utf8Length) + utf8Length;
+    }
+    return length;
+  }
+
+  /**
+   * Writes {@code version} at the buffer's position, advancing it.
+   * @param version the version to write
+   * @param out the buffer to write to
+   * @throws java.nio.BufferOverflowException if fewer than {@link #encodedLength(SemanticVersion)} bytes remain
+   */
+  public static void writeTo(SemanticVersion version, ByteBuffer out) {
+    @Nullable String buildMetadata = version.buildMetadata();
+    out.put((byte) ((version.isPrerelease() ? HAS_PRERELEASE : 0) | (buildMetadata != null ? HAS_BUILD_METADATA : 0)));
+    writeVarint(out, version.majorVersion());
+    writeVarint(out, version.minorVersion());
+    writeVarint(out, version.patchVersion());
+    if (version.isPrerelease()) {
+      PrereleaseIdentifier[] identifiers = prereleaseIdentifiers(version);
+      writeVarint(out, identifiers.length);
+      for (PrereleaseIdentifier identifier : identifiers) {
+        writeTo(identifier, out);
+      }
+    }
+    if (buildMetadata != null) {
+      byte[] utf8 = buildMetadata.getBytes(StandardCharsets.UTF_8);
+      writeVarint(out, utf8.length);
+      out.put(utf8);
+    }
+  }
+
+  /**
+   * @param version the version to write
+   * @param out the stream to write to
+   * @throws IOException if {@code out} throws one
+   */
+  public static void writeTo(SemanticVersion version, DataOutput out) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(encodedLength(version));
+    writeTo(version, buffer);
+    out.write(buffer.array());
+  }
+
+  /**
+   * Reads a version from the buffer's position, advancing it.
+   * @param in the buffer to read from
+   * @return the version read
+   * @throws IllegalArgumentException if the data isn't a valid encoding
+   * @throws BufferUnderflowException if the buffer ends before the version does
+   */
+  public static SemanticVersion readFrom(ByteBuffer in) {
+    try {
+      return read(new BufferSource(in));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Unreachable: ByteBuffer.get doesn't throw IOException
+    }
+  }
+
+  /**
+   * @param in the stream to read from
+   * @return the version read
+   * @throws IOException if {@code in} throws one, including {@link java.io.EOFException} if it ends before the version
+   *     does
+   * @throws IllegalArgumentException if the data isn't a valid encoding
+   */
+  public static SemanticVersion readFrom(DataInput in) throws IOException {
+    return read(in::readUnsignedByte);
+  }
+
+  @FunctionalInterface
+  private interface ByteSource {
+    int read() throws IOException;
+
+    /**
+     * @return an upper bound on the number of bytes left to read
+     */
+    default int remaining() {
+      return Integer.MAX_VALUE;
+    }
+  }
+
+  private record BufferSource(ByteBuffer in) implements ByteSource {
+    @Override
+    public int read() {
+      return in.get() & 0xFF;
+    }
+
+    @Override
+    public int remaining() {
+      return in.remaining();
+    }
+  }
+
+  private static SemanticVersion read(ByteSource in) throws IOException {
+    int flags = in.read();
+    if ((flags & ~KNOWN_FLAGS) != 0) {
+      throw new IllegalArgumentException("Unknown flags in semantic version encoding: " + flags);
+    }
+    @Unsigned long major = readVarint(in);
+    @Unsigned long minor = readVarint(in);
+    @Unsigned long patch = readVarint(in);
+    @Nullable PrereleaseIdentifier[] prerelease = null;
+    if ((flags & HAS_PRERELEASE) != 0) {
+      int count = readLength(in);
+      if (count == 0) {
+        throw new IllegalArgumentException("Prerelease flag set, but no prerelease identifiers");
+      }
+      List<PrereleaseIdentifier> identifiers = new ArrayList<>(Math.min(count, INITIAL_CAPACITY));
+      for (int i = 0; i < count; i++) {
+        identifiers.add(readIdentifier(in));
+      }
+      prerelease = identifiers.toArray(new PrereleaseIdentifier[0]);
+    }
+    @Nullable String buildMetadata = null;
+    if ((flags & HAS_BUILD_METADATA) != 0) {
+      byte[] utf8 = readBytes(in, readLength(in));
+      buildMetadata = new String(utf8, StandardCharsets.UTF_8);
+    }
+    return SemanticVersionImpl.of(major, minor, patch, prerelease, buildMetadata);
+  }
+
+  static int encodedLength(PrereleaseIdentifier identifier) {
+    int suffixLength = identifier.suffix().length();
+    int length = varintLength(identifierHeader(identifier)) + suffixLength;
+    if (identifier.hasNumericPart()) {
+      length += varintLength(identifier.numericPart());
+    }
+    return length;
+  }
+
+  private static long identifierHeader(PrereleaseIdentifier identifier) {
+    return ((long) identifier.suffix().length() << 1) | (identifier.hasNumericPart() ? 1 : 0);
+  }
+
+  static void writeTo(PrereleaseIdentifier identifier, ByteBuffer out) {
+    writeVarint(out, identifierHeader(identifier));
+    if (identifier.hasNumericPart()) {
+      writeVarint(out, identifier.numericPart());
+    }
+    String suffix = identifier.suffix();
+    for (int i = 0; i < suffix.length(); i++) {
+      out.put((byte) suffix.charAt(i)); // Always [0-9A-Za-z-]
+    }
+  }
+
+  static void writeTo(PrereleaseIdentifier identifier, DataOutput out) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(encodedLength(identifier));
+    writeTo(identifier, buffer);
+    out.write(buffer.array());
+  }
+
+  static PrereleaseIdentifier readIdentifier(DataInput in) throws IOException {
+    return readIdentifier((ByteSource) in::readUnsignedByte);
+  }
+
+  private static PrereleaseIdentifier readIdentifier(ByteSource in) throws IOException {
+    @Unsigned long header = readVarint(in);
+    boolean hasNumericPart = (header & 1) != 0;
+    long suffixLength = header >>> 1;
+    if (suffixLength > in.remaining() || (!hasNumericPart && suffixLength == 0)) {
+      throw new IllegalArgumentException("Invalid prerelease identifier header " + Long.toUnsignedString(header));
+    }
+    @Unsigned long numericPart = hasNumericPart ? readVarint(in) : 0;
+    byte[] suffix = readBytes(in, (int) suffixLength);
+    for (int i = 0; i < suffix.length; i++) {
+      int b = suffix[i] & 0xFF;
+      // A leading digit would belong to the numeric part, so it can't start the suffix
+      if (!SemanticVersionParser.isValidIdentifierChar((char) b) || (i == 0 && b >= '0' && b <= '9')) {
+        throw new IllegalArgumentException("Invalid prerelease identifier character " + b);
+      }
+    }
+    return new PrereleaseIdentifier(hasNumericPart, numericPart, new String(suffix, StandardCharsets.US_ASCII))
+        .canonical();
+  }
+
+  private static PrereleaseIdentifier[] prereleaseIdentifiers(SemanticVersion version) {
+    @Nullable PrereleaseIdentifier[] identifiers = SemanticVersionImpl.copyOf(version).prereleaseVersionArray();
+    return (identifiers == null) ? new PrereleaseIdentifier[0] : identifiers;
+  }
+
+  static int varintLength(@Unsigned long value) {
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(value | 1);
+    return (bits + 6) / 7;
+  }
+
+  private static void writeVarint(ByteBuffer out, @Unsigned long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.put((byte) (value | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  private static @Unsigned long readVarint(ByteSource in) throws IOException {
+    @Unsigned long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      int b = in.read();
+      if (shift == 63 && b > 1) {
+        throw new IllegalArgumentException("Varint is larger than an unsigned long");
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Varint is longer than 10 bytes");
+  }
+
+  /**
+   * Reads a count of bytes or of prerelease identifiers, each of which takes at least one byte.
+   */
+  private static int readLength(ByteSource in) throws IOException {
+    @Unsigned long length = readVarint(in);
+    if (length < 0 || length > in.remaining()) {
+      throw new IllegalArgumentException("Invalid length " + Long.toUnsignedString(length));
+    }
+    return (int) length;
+  }
+
+  /**
+   * Reads {@code length} bytes into an array that grows as they arrive, so that the input runs out before a corrupt
+   * length can force a huge allocation.
+   */
+  private static byte[] readBytes(ByteSource in, int length) throws IOException {
+    byte[] bytes = new byte[Math.min(length, INITIAL_CAPACITY)];
+    for (int i = 0; i < length; i++) {
+      if (i == bytes.length) {
+        bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+      }
+      bytes[i] = (byte) in.read();
+    }
+    return bytes;
+  }
+}
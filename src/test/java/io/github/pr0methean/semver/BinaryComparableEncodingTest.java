@@ -0,0 +1,105 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.pr0methean.semver.BinaryComparableEncoding.decode;
+import static io.github.pr0methean.semver.BinaryComparableEncoding.encode;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryComparableEncodingTest {
+  private static final String[] VERSION_STRINGS = {
+      "0.0.0-0",
+      "0.0.0",
+      "1.0.0-0",
+      "1.0.0-0.0",
+      "1.0.0-0a",
+      "1.0.0-0a.1",
+      "1.0.0-1",
+      "1.0.0-9",
+      "1.0.0-10",
+      "1.0.0-256",
+      "1.0.0-18446744073709551615",
+      "1.0.0-alpha",
+      "1.0.0-alpha.1",
+      "1.0.0-alpha.beta",
+      "1.0.0-alphabet",
+      "1.0.0-beta",
+      "1.0.0-rc.1",
+      "1.0.0",
+      "1.0.1",
+      "1.0.255",
+      "1.0.256",
+      "1.1.0",
+      "2.0.0",
+      "18446744073709551615.0.0",
+      "18446744073709551615.18446744073709551615.18446744073709551615"
+  };
+
+  @Test
+  public void testOrderMatchesComparator() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (String versionString : VERSION_STRINGS) {
+      SemanticVersion version = SemanticVersion.valueOf(versionString);
+      versions.add(version);
+      versions.add(version.withBuildMetadata("a"));
+      versions.add(version.withBuildMetadata("a-b"));
+      versions.add(version.withBuildMetadata("é", true));
+      versions.add(version.withBuildMetadata("￿", true));
+    }
+    for (SemanticVersion v1 : versions) {
+      for (SemanticVersion v2 : versions) {
+        assertEquals(Integer.signum(SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(v1, v2)),
+            Integer.signum(Arrays.compareUnsigned(encode(v1, false), encode(v2, false))), v1 + " vs " + v2);
+        assertEquals(Integer.signum(SemanticVersion.TOTAL_ORDERING.compare(v1, v2)),
+            Integer.signum(Arrays.compareUnsigned(encode(v1, true), encode(v2, true))), v1 + " vs " + v2);
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() {
+    for (String versionString : VERSION_STRINGS) {
+      SemanticVersion version = SemanticVersion.valueOf(versionString);
+      SemanticVersion withMetadata = version.withBuildMetadata("build.€7", true);
+      assertEquals(version, decode(encode(version, false)));
+      assertEquals(version, decode(encode(version, true)));
+      assertEquals(version, decode(encode(withMetadata, false)));
+      assertEquals(withMetadata, decode(encode(withMetadata, true)));
+      byte[] encoded = encode(withMetadata, true);
+      byte[] padded = new byte[encoded.length + 4];
+      System.arraycopy(encoded, 0, padded, 2, encoded.length);
+      assertEquals(withMetadata, decode(padded, 2, encoded.length));
+    }
+  }
+
+  @Test
+  public void testMalformedRejected() {
+    byte[] encoded = encode(SemanticVersion.valueOf("1.2.3-rc.1+b"), true);
+    for (int length = 0; length < encoded.length - 1; length++) {
+      byte[] truncated = Arrays.copyOf(encoded, length);
+      if (length != encoded.length - 2) {
+        assertThrows(IllegalArgumentException.class, () -> decode(truncated), "length " + length);
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{9, 0, 0, 2}));
+    assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{1, 0, 0, 0, 2}));
+    assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{0, 0, 0, 3}));
+    // Suffixes can't start with a digit, since "1" then "2a" would print as 12a but not equal it
+    assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{1, 1, 0, 0, 1, 1, 1, 1, '2', 'a', 0, 0}));
+    assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{1, 1, 0, 0, 1, 2, '2', 'a', 0, 0}));
+    byte[] metadata = encode(SemanticVersion.valueOf("1.0.0").withBuildMetadata("é", true), true);
+    assertEquals("1.0.0+é", decode(metadata).toString());
+    int lead = metadata.length - 3;
+    for (byte[] bad : List.of(new byte[]{(byte) 0x84, (byte) 0x80, (byte) 0x80},
+        new byte[]{(byte) 0x81, 0x41, (byte) 0x80}, new byte[]{(byte) 0x81, (byte) 0x80, 0x41},
+        new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0xC1}, new byte[]{(byte) 0x80, (byte) 0x80})) {
+      byte[] malformed = Arrays.copyOf(metadata, lead + bad.length);
+      System.arraycopy(bad, 0, malformed, lead, bad.length);
+      assertThrows(IllegalArgumentException.class, () -> decode(malformed), () -> Arrays.toString(malformed));
+    }
+  }
+}
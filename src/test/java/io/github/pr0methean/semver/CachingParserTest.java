@@ -0,0 +1,59 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingParserTest {
+  @Test
+  public void testHitsAndMisses() {
+    CachingParser parser = new CachingParser(100);
+    SemanticVersion first = parser.valueOf("1.2.3-rc.1");
+    assertEquals(SemanticVersion.valueOf("1.2.3-rc.1"), first);
+    assertSame(first, parser.valueOf("1.2.3-rc.1"));
+    assertEquals(1, parser.hitCount());
+    assertEquals(1, parser.missCount());
+    assertEquals(0, parser.evictionCount());
+    assertEquals(1, parser.size());
+  }
+
+  @Test
+  public void testStrictAndLenientCachedSeparately() {
+    CachingParser parser = new CachingParser(100);
+    assertThrows(IllegalArgumentException.class, () -> parser.valueOf("1.2"));
+    assertEquals(SemanticVersion.valueOf("1.2.0"), parser.valueOf("1.2", true));
+    assertThrows(IllegalArgumentException.class, () -> parser.valueOf("1.2"));
+    assertEquals(SemanticVersion.valueOf("1.2.3"), parser.valueOf("1.2.3+", true));
+    assertThrows(IllegalArgumentException.class, () -> parser.valueOf("1.2.3+"));
+    assertEquals(0, parser.hitCount());
+    assertEquals(2, parser.size());
+  }
+
+  @Test
+  public void testFrequentlyUsedEntrySurvivesEviction() {
+    CachingParser parser = new CachingParser(4);
+    SemanticVersion hot = parser.valueOf("1.0.0");
+    for (int i = 0; i < 3; i++) {
+      assertSame(hot, parser.valueOf("1.0.0"));
+    }
+    IntStream.range(0, 6).forEach(i -> parser.valueOf("2.0." + i));
+    assertEquals(4, parser.size());
+    assertEquals(3, parser.evictionCount());
+    long hitsBefore = parser.hitCount();
+    assertSame(hot, parser.valueOf("1.0.0"));
+    assertEquals(hitsBefore + 1, parser.hitCount());
+  }
+
+  @Test
+  public void testCapacityValidated() {
+    assertThrows(IllegalArgumentException.class, () -> new CachingParser(0));
+    CachingParser parser = new CachingParser(1000);
+    IntStream.range(0, 5000).parallel().forEach(i -> parser.valueOf("1.0." + i));
+    assertTrue(parser.size() <= parser.capacity());
+    assertEquals(5000, parser.missCount());
+    parser.clear();
+    assertEquals(0, parser.size());
+  }
+}
@@ -0,0 +1,200 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentVersionMapTest {
+  private static List<SemanticVersion> versions() {
+    List<SemanticVersion> versions = new ArrayList<>(TestUtil.VERSIONS_WITH_BUILD_METADATA);
+    for (int i = 0; i < 40; i++) {
+      versions.add(SemanticVersion.valueOf("3." + i + ".0-rc"));
+      versions.add(SemanticVersion.valueOf("3." + i + ".0"));
+    }
+    return versions;
+  }
+
+  @Test
+  public void testRandomUpdatesMatchTreeMap() {
+    for (Comparator<SemanticVersion> ordering
+        : List.of(SemanticVersion.TOTAL_ORDERING, SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR)) {
+      List<SemanticVersion> versions = versions();
+      Random random = new Random(TestUtil.RANDOM_SEED);
+      TreeMap<SemanticVersion, Integer> expected = new TreeMap<>(ordering);
+      PersistentVersionMap<Integer> actual = PersistentVersionMap.empty(ordering);
+      for (int step = 0; step < 1000; step++) {
+        SemanticVersion key = versions.get(random.nextInt(versions.size()));
+        if (random.nextInt(3) == 0) {
+          expected.remove(key);
+          actual = actual.without(key);
+        } else {
+          expected.put(key, step);
+          actual = actual.with(key, step);
+        }
+        assertEquals(expected.size(), actual.size());
+        if (step % 50 == 0) {
+          assertMatches(expected, actual, versions);
+        }
+      }
+      assertMatches(expected, actual, versions);
+    }
+  }
+
+  private static void assertMatches(TreeMap<SemanticVersion, Integer> expected, PersistentVersionMap<Integer> actual,
+      List<SemanticVersion> probes) {
+    assertEquals(expected, actual);
+    assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+    assertEquals(expected.firstEntry(), actual.firstEntry());
+    assertEquals(expected.lastEntry(), actual.lastEntry());
+    Map.Entry<SemanticVersion, Integer> latestRelease = null;
+    for (Map.Entry<SemanticVersion, Integer> entry : expected.entrySet()) {
+      if (!entry.getKey().isPrerelease()) {
+        latestRelease = entry;
+      }
+    }
+    assertEquals(latestRelease, actual.latestRelease());
+    for (SemanticVersion probe : probes) {
+      assertEquals(expected.get(probe), actual.get(probe), probe::toString);
+      assertEquals(expected.containsKey(probe), actual.containsKey(probe), probe::toString);
+      assertEquals(expected.lowerEntry(probe), actual.lowerEntry(probe), probe::toString);
+      assertEquals(expected.floorEntry(probe), actual.floorEntry(probe), probe::toString);
+      assertEquals(expected.ceilingEntry(probe), actual.ceilingEntry(probe), probe::toString);
+      assertEquals(expected.higherEntry(probe), actual.higherEntry(probe), probe::toString);
+      Map.Entry<SemanticVersion, Integer> latestReleaseBefore = null;
+      for (Map.Entry<SemanticVersion, Integer> entry : expected.headMap(probe).entrySet()) {
+        if (!entry.getKey().isPrerelease()) {
+          latestReleaseBefore = entry;
+        }
+      }
+      assertEquals(latestReleaseBefore, actual.latestReleaseBefore(probe), probe::toString);
+      Map.Entry<SemanticVersion, Integer> latestPrerelease = null;
+      for (Map.Entry<SemanticVersion, Integer> entry : expected.entrySet()) {
+        SemanticVersion key = entry.getKey();
+        if (key.isPrerelease() && key.majorVersion() == probe.majorVersion()
+            && key.minorVersion() == probe.minorVersion() && key.patchVersion() == probe.patchVersion()) {
+          latestPrerelease = entry;
+        }
+      }
+      assertEquals(latestPrerelease, actual.latestPrereleaseOf(probe), probe::toString);
+    }
+  }
+
+  @Test
+  public void testNavigableViewsMatchTreeMap() {
+    List<SemanticVersion> versions = versions();
+    Random random = new Random(TestUtil.RANDOM_SEED);
+    TreeMap<SemanticVersion, Integer> expected = new TreeMap<>(SemanticVersion.TOTAL_ORDERING);
+    PersistentVersionMap<Integer> actual = PersistentVersionMap.empty();
+    for (int i = 0; i < versions.size(); i++) {
+      if (random.nextBoolean()) {
+        expected.put(versions.get(i), i);
+        actual = actual.with(versions.get(i), i);
+      }
+    }
+    assertSame(SemanticVersion.TOTAL_ORDERING, actual.comparator());
+    assertNavigableMatches(expected, actual, versions);
+    assertNavigableMatches(expected.descendingMap(), actual.descendingMap(), versions);
+    for (int trial = 0; trial < 200; trial++) {
+      SemanticVersion from = versions.get(random.nextInt(versions.size()));
+      SemanticVersion to = versions.get(random.nextInt(versions.size()));
+      boolean fromInclusive = random.nextBoolean();
+      boolean toInclusive = random.nextBoolean();
+      if (SemanticVersion.TOTAL_ORDERING.compare(from, to) > 0) {
+        PersistentVersionMap<Integer> finalActual = actual;
+        assertThrows(IllegalArgumentException.class, () -> finalActual.subMap(from, to));
+        assertNavigableMatches(expected.descendingMap().subMap(from, fromInclusive, to, toInclusive),
+            actual.descendingMap().subMap(from, fromInclusive, to, toInclusive), versions);
+        continue;
+      }
+      NavigableMap<SemanticVersion, Integer> expectedSub = expected.subMap(from, fromInclusive, to, toInclusive);
+      NavigableMap<SemanticVersion, Integer> actualSub = actual.subMap(from, fromInclusive, to, toInclusive);
+      assertNavigableMatches(expectedSub, actualSub, versions);
+      assertNavigableMatches(expectedSub.descendingMap(), actualSub.descendingMap(), versions);
+      assertNavigableMatches(expected.headMap(to, toInclusive), actual.headMap(to, toInclusive), versions);
+      NavigableMap<SemanticVersion, Integer> expectedTail = expected.tailMap(from, fromInclusive).descendingMap();
+      NavigableMap<SemanticVersion, Integer> actualTail = actual.tailMap(from, fromInclusive).descendingMap();
+      SemanticVersion nestedBound = versions.get(random.nextInt(versions.size()));
+      boolean nestedInclusive = random.nextBoolean();
+      for (boolean descending : new boolean[] {false, true}) {
+        NavigableMap<SemanticVersion, Integer> expectedOuter = descending ? expectedTail : expectedSub;
+        NavigableMap<SemanticVersion, Integer> actualOuter = descending ? actualTail : actualSub;
+        NavigableMap<SemanticVersion, Integer> expectedNested;
+        try {
+          expectedNested = expectedOuter.tailMap(nestedBound, nestedInclusive);
+        } catch (IllegalArgumentException e) {
+          assertThrows(IllegalArgumentException.class, () -> actualOuter.tailMap(nestedBound, nestedInclusive));
+          continue;
+        }
+        assertNavigableMatches(expectedNested, actualOuter.tailMap(nestedBound, nestedInclusive), versions);
+      }
+    }
+  }
+
+  private static void assertNavigableMatches(NavigableMap<SemanticVersion, Integer> expected,
+      NavigableMap<SemanticVersion, Integer> actual, List<SemanticVersion> probes) {
+    assertEquals(expected, actual);
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.isEmpty(), actual.isEmpty());
+    assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+    assertEquals(new ArrayList<>(expected.navigableKeySet()), new ArrayList<>(actual.navigableKeySet()));
+    assertEquals(new ArrayList<>(expected.descendingKeySet()), new ArrayList<>(actual.descendingKeySet()));
+    assertEquals(expected.firstEntry(), actual.firstEntry());
+    assertEquals(expected.lastEntry(), actual.lastEntry());
+    if (expected.isEmpty()) {
+      assertThrows(NoSuchElementException.class, actual::firstKey);
+    } else {
+      assertEquals(expected.lastKey(), actual.lastKey());
+    }
+    for (SemanticVersion probe : probes) {
+      assertEquals(expected.get(probe), actual.get(probe), probe::toString);
+      assertEquals(expected.containsKey(probe), actual.containsKey(probe), probe::toString);
+      assertEquals(expected.lowerEntry(probe), actual.lowerEntry(probe), probe::toString);
+      assertEquals(expected.floorKey(probe), actual.floorKey(probe), probe::toString);
+      assertEquals(expected.ceilingEntry(probe), actual.ceilingEntry(probe), probe::toString);
+      assertEquals(expected.higherKey(probe), actual.higherKey(probe), probe::toString);
+    }
+    assertThrows(UnsupportedOperationException.class, actual::pollFirstEntry);
+  }
+
+  @Test
+  public void testSnapshotsAreUnaffectedByUpdates() {
+    SemanticVersion first = SemanticVersion.valueOf("1.0.0");
+    SemanticVersion second = SemanticVersion.valueOf("2.0.0");
+    PersistentVersionMap<String> empty = PersistentVersionMap.empty();
+    PersistentVersionMap<String> one = empty.with(first, "a");
+    PersistentVersionMap<String> two = one.with(second, "b");
+    PersistentVersionMap<String> replaced = two.with(first, "c");
+    assertTrue(empty.isEmpty());
+    assertEquals(Map.of(first, "a"), one);
+    assertEquals(Map.of(first, "a", second, "b"), two);
+    assertEquals(Map.of(first, "c", second, "b"), replaced);
+    assertSame(two, two.with(second, "b"));
+    assertSame(two, two.without(SemanticVersion.valueOf("3.0.0")));
+    assertEquals(one, two.without(second));
+    assertThrows(UnsupportedOperationException.class, () -> two.put(first, "d"));
+    assertThrows(UnsupportedOperationException.class, () -> two.firstEntry().setValue("d"));
+  }
+
+  @Test
+  public void testBuildMetadataAgnosticOrderingKeepsFirstKey() {
+    SemanticVersion withA = SemanticVersion.valueOf("1.0.0+a");
+    SemanticVersion withB = SemanticVersion.valueOf("1.0.0+b");
+    PersistentVersionMap<Integer> map = PersistentVersionMap.<Integer>empty(
+        SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR).with(withA, 1).with(withB, 2);
+    assertEquals(1, map.size());
+    assertSame(withA, map.firstEntry().getKey());
+    assertEquals(2, map.get(withB));
+    assertEquals(2, map.get(SemanticVersion.valueOf("1.0.0")));
+    assertThrows(IllegalArgumentException.class,
+        () -> PersistentVersionMap.empty(Comparator.<SemanticVersion>naturalOrder()));
+  }
+}
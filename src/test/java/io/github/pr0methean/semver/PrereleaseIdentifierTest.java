@@ -17,6 +17,21 @@ public class PrereleaseIdentifierTest {
         .toArray(PrereleaseIdentifier[]::new));
   }
 
+  @Test
+  public void testCompareWithoutParsingAgrees() {
+    String[] strings = {"0", "1", "01", "2", "2a", "2ab", "2b", "10", "18446744073709551615", "18446744073709551615a",
+        "-", "A", "a", "alpha", "alpha-1", "beta"};
+    for (String s1 : strings) {
+      for (String s2 : strings) {
+        int expected = Integer.signum(valueOf(s1).compareTo(valueOf(s2)));
+        assertEquals(expected, Integer.signum(PrereleaseIdentifier.compare(s1, s2)), s1 + " vs " + s2);
+        assertEquals(expected, Integer.signum(valueOf(s1).compareTo((CharSequence) s2)), s1 + " vs " + s2);
+        assertEquals(valueOf(s1).toString().equals(s2), valueOf(s1).contentEquals(s2), s1 + " vs " + s2);
+      }
+    }
+    assertThrows(NumberFormatException.class, () -> PrereleaseIdentifier.compare("18446744073709551616", "1"));
+  }
+
   @Test
   public void testWithEqualsVerifier() {
     EqualsVerifier.forRelaxedEqualExamples(
@@ -27,6 +42,7 @@ public class PrereleaseIdentifierTest {
             new PrereleaseIdentifier(true, 2, "foo"),
             new PrereleaseIdentifier(false, 1, "foo-dog"),
             new PrereleaseIdentifier(false, 1, "bar"))
+        .withCachedHashCode("hash", "computeHashCode", new PrereleaseIdentifier(true, 1, "foo"))
         .verify();
   }
 
@@ -71,6 +87,25 @@ public class PrereleaseIdentifierTest {
     assertThrows(IllegalArgumentException.class, () -> valueOf("\uD83D\uDCA9"));
   }
 
+  @Test
+  public void testNumericOverflowRejected() {
+    assertEquals(-1, valueOf("18446744073709551615").numericPart());
+    assertThrows(NumberFormatException.class, () -> valueOf("18446744073709551616"));
+    assertThrows(NumberFormatException.class, () -> valueOf("99999999999999999999a"));
+  }
+
+  @Test
+  public void testValueOfSubrange() {
+    String input = "rc.12b.beta";
+    assertEquals(valueOf("rc"), valueOf(input, 0, 2));
+    assertEquals(valueOf("12b"), valueOf(input, 3, 6));
+    assertEquals(valueOf("beta"), valueOf(input, 7, 11));
+    String gamma = "gamma";
+    assertSame(gamma, valueOf(gamma).suffix());
+    assertThrows(IllegalArgumentException.class, () -> valueOf(input, 0, 3));
+    assertThrows(IllegalArgumentException.class, () -> valueOf(input, 2, 2));
+  }
+
   @Test
   public void testEmptyRejected() {
     assertThrows(IllegalArgumentException.class, () -> valueOf(""));
@@ -0,0 +1,44 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.pr0methean.semver.SemanticVersionInterner.intern;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticVersionInternerTest {
+  @Test
+  public void testEqualVersionsShareInstance() {
+    SemanticVersion first = intern(SemanticVersion.valueOf("3.1.4-foo.15b+build"));
+    SemanticVersion second = intern(SemanticVersion.valueOf("3.1.4-foo.15b+build"));
+    assertSame(first, second);
+    assertEquals(SemanticVersion.valueOf("3.1.4-foo.15b+build"), first);
+    assertNotSame(first, intern(SemanticVersion.valueOf("3.1.4-foo.15b")));
+  }
+
+  @Test
+  public void testIdentifiersCanonicalized() {
+    SemanticVersionImpl first = (SemanticVersionImpl) intern(SemanticVersion.valueOf("1.0.0-xyzzy.20"));
+    SemanticVersionImpl second = (SemanticVersionImpl) intern(SemanticVersion.valueOf("2.0.0-xyzzy.20"));
+    assertSame(first.prereleaseVersionArray()[0], second.prereleaseVersionArray()[0]);
+    assertSame(first.prereleaseVersionArray()[1], second.prereleaseVersionArray()[1]);
+  }
+
+  @Test
+  public void testCommonIdentifiersSharedWithoutInterning() {
+    SemanticVersionImpl first = (SemanticVersionImpl) SemanticVersion.valueOf("1.0.0-rc.1");
+    SemanticVersionImpl second = (SemanticVersionImpl) SemanticVersion.valueOf("2.0.0-rc.1");
+    assertSame(first.prereleaseVersionArray()[0], second.prereleaseVersionArray()[0]);
+    assertSame(first.prereleaseVersionArray()[1], second.prereleaseVersionArray()[1]);
+    assertSame(PrereleaseIdentifier.valueOf("SNAPSHOT"), PrereleaseIdentifier.valueOf("SNAPSHOT"));
+    assertSame(PrereleaseIdentifier.MIN_VALUE, PrereleaseIdentifier.valueOf("0"));
+  }
+
+  @Test
+  public void testInternedAcrossFactories() {
+    SemanticVersion builtIn = intern(SemanticVersion.valueOf(5, 6, 7, List.of("beta", "2"), null));
+    SemanticVersion copy = SemanticVersion.valueOf("5.6.7-beta.2");
+    assertSame(builtIn, intern(copy));
+  }
+}
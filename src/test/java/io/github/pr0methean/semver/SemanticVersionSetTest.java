@@ -0,0 +1,137 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticVersionSetTest {
+  private static List<SemanticVersion> members() {
+    List<SemanticVersion> members = new ArrayList<>();
+    // Every other version, so that the rest fall between members
+    for (int i = 0; i < TestUtil.VERSIONS_WITH_BUILD_METADATA.size(); i += 2) {
+      members.add(TestUtil.VERSIONS_WITH_BUILD_METADATA.get(i));
+    }
+    // Enough releases to span several words of the rank bitmap
+    for (int i = 0; i < 150; i++) {
+      members.add(SemanticVersion.valueOf("3." + i + ".0"));
+      if (i % 3 == 0) {
+        members.add(SemanticVersion.valueOf("3." + i + ".0-rc"));
+      }
+    }
+    return members;
+  }
+
+  private static List<SemanticVersion> probes() {
+    List<SemanticVersion> probes = new ArrayList<>();
+    probes.addAll(TestUtil.VERSIONS_WITH_BUILD_METADATA);
+    probes.addAll(members());
+    probes.add(SemanticVersion.valueOf("3.1.0-rc"));
+    probes.add(SemanticVersion.valueOf("3.3.0-rc"));
+    probes.add(SemanticVersion.MIN_VALUE);
+    probes.add(SemanticVersion.MAX_VALUE);
+    return probes;
+  }
+
+  @Test
+  public void testMatchesTreeSet() {
+    List<SemanticVersion> members = members();
+    TreeSet<SemanticVersion> expected = new TreeSet<>(members);
+    SemanticVersionSet actual = SemanticVersionSet.copyOf(members);
+    assertNavigationMatches(expected, actual);
+    assertEquals(expected, actual);
+    assertEquals(actual, expected);
+    assertEquals(expected.hashCode(), actual.hashCode());
+    assertEquals(new ArrayList<>(expected.descendingSet()), new ArrayList<>(actual.descendingSet()));
+    List<SemanticVersion> descending = new ArrayList<>();
+    actual.descendingIterator().forEachRemaining(descending::add);
+    assertEquals(new ArrayList<>(expected.descendingSet()), descending);
+  }
+
+  @Test
+  public void testSubsetsMatchTreeSet() {
+    TreeSet<SemanticVersion> expected = new TreeSet<>(members());
+    SemanticVersionSet actual = SemanticVersionSet.copyOf(members());
+    List<SemanticVersion> bounds = new ArrayList<>(TestUtil.VERSIONS_WITH_BUILD_METADATA);
+    bounds.add(SemanticVersion.valueOf("3.3.0-rc"));
+    bounds.add(SemanticVersion.valueOf("3.100.0"));
+    for (SemanticVersion low : bounds) {
+      for (boolean inclusive : new boolean[] {false, true}) {
+        assertNavigationMatches(expected.headSet(low, inclusive), actual.headSet(low, inclusive));
+        assertNavigationMatches(expected.tailSet(low, inclusive), actual.tailSet(low, inclusive));
+      }
+      for (SemanticVersion high : bounds) {
+        if (low.compareTo(high) <= 0) {
+          assertNavigationMatches(expected.subSet(low, true, high, false), actual.subSet(low, true, high, false));
+          assertNavigationMatches(expected.subSet(low, false, high, true), actual.subSet(low, false, high, true));
+        } else {
+          assertThrows(IllegalArgumentException.class, () -> actual.subSet(low, high));
+        }
+      }
+    }
+  }
+
+  private static void assertNavigationMatches(NavigableSet<SemanticVersion> expected, SemanticVersionSet actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+    if (expected.isEmpty()) {
+      assertThrows(NoSuchElementException.class, actual::first);
+      assertThrows(NoSuchElementException.class, actual::last);
+    } else {
+      assertEquals(expected.first(), actual.first());
+      assertEquals(expected.last(), actual.last());
+    }
+    int index = 0;
+    for (SemanticVersion member : expected) {
+      assertEquals(member, actual.get(index));
+      assertEquals(index, actual.indexOf(member));
+      index++;
+    }
+    for (SemanticVersion probe : probes()) {
+      assertEquals(expected.contains(probe), actual.contains(probe), probe::toString);
+      assertEquals(expected.lower(probe), actual.lower(probe), probe::toString);
+      assertEquals(expected.floor(probe), actual.floor(probe), probe::toString);
+      assertEquals(expected.ceiling(probe), actual.ceiling(probe), probe::toString);
+      assertEquals(expected.higher(probe), actual.higher(probe), probe::toString);
+      if (!expected.contains(probe)) {
+        long insertionPoint = expected.stream().filter(member -> member.compareTo(probe) < 0).count();
+        assertEquals(-insertionPoint - 1, actual.indexOf(probe), probe::toString);
+      }
+    }
+  }
+
+  @Test
+  public void testBuildMetadataKept() {
+    SemanticVersionSet set = SemanticVersionSet.of(SemanticVersion.valueOf("1.0.0+b"),
+        SemanticVersion.valueOf("1.0.0+a"), SemanticVersion.valueOf("1.0.0+a"));
+    assertEquals(2, set.size());
+    assertEquals("1.0.0+a", set.first().toString());
+    assertEquals("1.0.0+b", set.last().toString());
+    assertFalse(set.contains(SemanticVersion.valueOf("1.0.0")));
+  }
+
+  @Test
+  public void testImmutable() {
+    SemanticVersionSet set = SemanticVersionSet.copyOf(members());
+    SemanticVersion version = SemanticVersion.valueOf("9.9.9");
+    assertThrows(UnsupportedOperationException.class, () -> set.add(version));
+    assertThrows(UnsupportedOperationException.class, () -> set.remove(set.first()));
+    assertThrows(UnsupportedOperationException.class, set::pollFirst);
+    assertThrows(UnsupportedOperationException.class, set::pollLast);
+    assertThrows(UnsupportedOperationException.class, set::clear);
+    Iterator<SemanticVersion> iterator = set.iterator();
+    iterator.next();
+    assertThrows(UnsupportedOperationException.class, iterator::remove);
+    assertThrows(UnsupportedOperationException.class, () -> set.descendingSet().add(version));
+    assertNull(set.comparator());
+    assertThrows(NullPointerException.class,
+        () -> SemanticVersionSet.copyOf(Arrays.asList(version, null)));
+  }
+}
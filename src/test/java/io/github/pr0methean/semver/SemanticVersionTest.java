@@ -12,23 +12,35 @@ import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 
 import static io.github.pr0methean.semver.SemanticVersion.*;
+import static io.github.pr0methean.semver.TestUtil.TEST_VERSION_STRINGS_FOR_SORTING;
 import static java.lang.Long.toUnsignedString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Execution(ExecutionMode.CONCURRENT)
@@ -36,90 +48,13 @@ public class SemanticVersionTest {
   @Unsigned
   private static final long MAX_UNSIGNED_LONG = -1; // bits are all 1s
   private static final String MAX_UNSIGNED_LONG_STRING = toUnsignedString(MAX_UNSIGNED_LONG);
-  private static final String MAX_UNSIGNED_LONG_MINUS_ONE_STRING = toUnsignedString(MAX_UNSIGNED_LONG - 1);
-  private static final String[] TEST_VERSION_STRINGS_FOR_SORTING = {
-      "1.0.0-0",
-      "1.0.0-0.0",
-      "1.0.0-0.1",
-      "1.0.0-0a",
-      "1.0.0-0a.0",
-      "1.0.0-0a.1",
-      "1.0.0-0beta",
-      "1.0.0-1",
-      "1.0.0-1.0",
-      "1.0.0-1.0.0",
-      "1.0.0-1.1",
-      "1.0.0-1.1.0",
-      "1.0.0-1.1.0a",
-      "1.0.0-1.1.2",
-      "1.0.0-1a",
-      "1.0.0-1a.0",
-      "1.0.0-1a.1",
-      "1.0.0-1b",
-      "1.0.0-3",
-      "1.0.0-3a",
-      "1.0.0-3b",
-      "1.0.0-9",
-      "1.0.0-10",
-      "1.0.0-" + MAX_UNSIGNED_LONG_STRING,
-      "1.0.0-alpha",
-      "1.0.0-alpha.0",
-      "1.0.0-alpha.1",
-      "1.0.0-alpha.1a",
-      "1.0.0-alpha.1a.bravo",
-      "1.0.0-alpha.5",
-      "1.0.0-alpha.5a",
-      "1.0.0-alpha.5a.alpha",
-      "1.0.0-alpha.5a.bravo",
-      "1.0.0-alpha." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
-      "1.0.0-alpha." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + "a",
-      "1.0.0-alpha." + MAX_UNSIGNED_LONG_STRING,
-      "1.0.0-alpha." + MAX_UNSIGNED_LONG_STRING + "a",
-      "1.0.0-alpha.beta",
-      "1.0.0-beta",
-      "1.0.0-beta.0",
-      "1.0.0-beta.2",
-      "1.0.0-beta.9",
-      "1.0.0-beta.10",
-      "1.0.0-beta.11",
-      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING,
-      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + ".1",
-      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
-      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
-      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + "a",
-      "1.0.0-beta0",
-      "1.0.0-beta1",
-      "1.0.0-rc.1",
-      "1.0.0",
-      "1.0.1",
-      "1.0." + Long.MAX_VALUE,
-      "1.0." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
-      "1.0." + MAX_UNSIGNED_LONG_STRING,
-      "1.1.0",
-      "1.1.1",
-      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + ".0",
-      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0",
-      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0.1",
-      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0a",
-      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
-      "1." + MAX_UNSIGNED_LONG_STRING + ".0-" + MAX_UNSIGNED_LONG_STRING,
-      "1." + MAX_UNSIGNED_LONG_STRING + ".0",
-      "1." + MAX_UNSIGNED_LONG_STRING + ".1",
-      "1." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-a",
-      "1." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
-      "2.0.0",
-      Long.MAX_VALUE + ".0.0",
-      MAX_UNSIGNED_LONG_MINUS_ONE_STRING + ".0.0",
-      MAX_UNSIGNED_LONG_STRING + ".0.0",
-      MAX_UNSIGNED_LONG_STRING + ".0." + MAX_UNSIGNED_LONG_STRING,
-      MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + ".0",
-      MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
-      };
   private static final SemanticVersion[] TEST_VERSIONS_FOR_SORTING = Arrays.stream(TEST_VERSION_STRINGS_FOR_SORTING)
       .map(SemanticVersion::valueOf)
       .toArray(SemanticVersion[]::new);
-  private static final String[] INVALID_VERSIONS_EVEN_LENIENT = {"","-","-1","-pre1",".","..","..1","q.w.e","..q","q..","w.e","+"};
-  private static final String[] LENIENT_VERSIONS = {"1",".9",".9.0","0.1.2.3","0.1.2-"};
+  private static final String[] INVALID_VERSIONS_EVEN_LENIENT = {"","-","-1","-pre1",".","..","..1","q.w.e","..q","q..","w.e","+",
+      "1..2","1.2.3.x","18446744073709551616.0.0","1.2.3-18446744073709551616"};
+  private static final String[] LENIENT_VERSIONS = {"1",".9",".9.0","0.1.2.3","0.1.2-","0.1.2.","1..",
+      "0.1.2-alpha.","0.1.2-alpha..1"};
   private static final long[] TEST_VERSIONS = {
       0,
       1,
@@ -137,6 +72,196 @@ public class SemanticVersionTest {
     TestUtil.verifySortOrder(
         true, Arrays.stream(TEST_VERSION_STRINGS_FOR_SORTING).map(SemanticVersion::valueOf).toArray(SemanticVersion[]::new));
   }
+  @Test
+  public void testComparatorsMatchReferenceChain() {
+    Comparator<SemanticVersion> reference = Comparator
+        .comparing(SemanticVersion::majorVersion, Long::compareUnsigned)
+        .thenComparing(SemanticVersion::minorVersion, Long::compareUnsigned)
+        .thenComparing(SemanticVersion::patchVersion, Long::compareUnsigned)
+        .thenComparing(SemanticVersion::comparePrereleaseVersions);
+    Comparator<SemanticVersion> totalReference = reference.thenComparing(SemanticVersion::buildMetadata,
+        Comparator.nullsFirst(Comparator.naturalOrder()));
+    List<SemanticVersion> versions = new ArrayList<>(Arrays.asList(TEST_VERSIONS_FOR_SORTING));
+    for (SemanticVersion version : TEST_VERSIONS_FOR_SORTING) {
+      versions.add(version.withBuildMetadata("a"));
+      versions.add(version.withBuildMetadata("b"));
+    }
+    versions.add(MOCK_MINIMUM);
+    versions.add(MOCK_MAXIMUM);
+    for (SemanticVersion v1 : versions) {
+      for (SemanticVersion v2 : versions) {
+        assertEquals(Integer.signum(reference.compare(v1, v2)),
+            Integer.signum(BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(v1, v2)), v1 + " vs " + v2);
+        assertEquals(Integer.signum(totalReference.compare(v1, v2)),
+            Integer.signum(TOTAL_ORDERING.compare(v1, v2)), v1 + " vs " + v2);
+      }
+    }
+  }
+
+  @Test
+  public void testAbbreviatedKeyOrderPreserving() {
+    List<SemanticVersion> versions = new ArrayList<>(Arrays.asList(TEST_VERSIONS_FOR_SORTING));
+    versions.add(MIN_VALUE);
+    versions.add(SemanticVersion.MAX_VALUE);
+    for (SemanticVersion v1 : versions) {
+      for (SemanticVersion v2 : versions) {
+        int keyComparison = Long.compareUnsigned(v1.abbreviatedKey(), v2.abbreviatedKey());
+        int comparison = BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(v1, v2);
+        if (keyComparison != 0) {
+          assertEquals(Integer.signum(keyComparison), Integer.signum(comparison), v1 + " vs " + v2);
+        }
+      }
+    }
+    assertNotEquals(valueOf("1.2.3").abbreviatedKey(), valueOf("1.2.3-rc").abbreviatedKey());
+    assertNotEquals(valueOf("1.2.3-rc").abbreviatedKey(), valueOf("1.2.4-rc").abbreviatedKey());
+  }
+
+  @Test
+  public void testFormattingMatchesSource() throws IOException {
+    List<String> versionStrings = new ArrayList<>(Arrays.asList(TEST_VERSION_STRINGS_FOR_SORTING));
+    versionStrings.add("18446744073709551615.9223372036854775808.9999999999999999999-18446744073709551615a.b+c-d");
+    for (String versionString : versionStrings) {
+      SemanticVersion version = valueOf(versionString);
+      assertEquals(versionString, version.toString());
+      if (version instanceof SemanticVersionImpl) {
+        assertSame(version.toString(), version.toString());
+      }
+      assertEquals(versionString.length(), version.formattedLength());
+      assertEquals("<" + versionString, version.formatTo(new StringBuilder("<")).toString());
+      StringWriter writer = new StringWriter();
+      version.formatTo(writer);
+      assertEquals(versionString, writer.toString());
+      byte[] bytes = new byte[versionString.length() + 2];
+      assertEquals(bytes.length - 1, version.writeAscii(bytes, 1));
+      assertEquals(versionString, new String(bytes, 1, versionString.length(), StandardCharsets.US_ASCII));
+      assertThrows(IndexOutOfBoundsException.class, () -> version.writeAscii(bytes, 3));
+      for (ByteBuffer buffer : List.of(ByteBuffer.allocate(bytes.length), ByteBuffer.allocateDirect(bytes.length))) {
+        buffer.put((byte) 0);
+        version.writeAscii(buffer);
+        assertEquals(bytes.length - 1, buffer.position());
+        buffer.flip().get();
+        assertEquals(versionString, StandardCharsets.US_ASCII.decode(buffer).toString());
+      }
+    }
+    byte[] nonAscii = new byte[7];
+    assertEquals(7, valueOf("1.0.0").withBuildMetadata("é", true).writeAscii(nonAscii, 0));
+    assertEquals("1.0.0+?", new String(nonAscii, StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void testIndexedPrereleaseAccessors() {
+    SemanticVersion version = valueOf("1.0.0-alpha.12.0.18446744073709551615.3rc");
+    SemanticVersion mock = createMock(1, 0, 0, List.of("alpha", "12", "0", "18446744073709551615", "3rc"));
+    for (SemanticVersion v : List.of(version, mock)) {
+      assertEquals(5, v.prereleaseIdentifierCount());
+      assertEquals(version.prereleaseVersion(), v.prereleaseIdentifiers());
+      assertEquals("alpha", v.prereleaseIdentifierAt(0));
+      assertEquals("3rc", v.prereleaseIdentifierAt(4));
+      assertFalse(v.isNumericIdentifier(0));
+      assertTrue(v.isNumericIdentifier(1));
+      assertFalse(v.isNumericIdentifier(4));
+      assertEquals(12, v.numericIdentifierAt(1));
+      assertEquals(0, v.numericIdentifierAt(2));
+      assertEquals(MAX_UNSIGNED_LONG, v.numericIdentifierAt(3));
+      assertThrows(NumberFormatException.class, () -> v.numericIdentifierAt(0));
+      assertThrows(NumberFormatException.class, () -> v.numericIdentifierAt(4));
+      assertThrows(IndexOutOfBoundsException.class, () -> v.prereleaseIdentifierAt(5));
+      assertThrows(IndexOutOfBoundsException.class, () -> v.isNumericIdentifier(-1));
+      assertThrows(UnsupportedOperationException.class, () -> v.prereleaseIdentifiers().set(0, "beta"));
+    }
+    assertEquals(version, mock);
+    assertNotEquals(version, createMock(1, 0, 0, List.of("alpha", "012", "0", "18446744073709551615", "3rc")));
+    assertNotEquals(version, createMock(1, 0, 0, List.of("alpha", "12", "0", "18446744073709551616", "3rc")));
+    assertNotEquals(version, createMock(1, 0, 0, List.of("alpha", "12", "0", "18446744073709551615", "3RC")));
+    assertNotEquals(version, createMock(1, 0, 0, List.of("alpha", "12", "0", "18446744073709551615")));
+    SemanticVersion release = valueOf("1.0.0");
+    assertEquals(0, release.prereleaseIdentifierCount());
+    assertEquals(List.of(), release.prereleaseIdentifiers());
+    assertThrows(IndexOutOfBoundsException.class, () -> release.prereleaseIdentifierAt(0));
+  }
+
+  @Test
+  public void testPreParsedIdentifiersUsedForComparison() {
+    SemanticVersion v1 = createPreParsedMock(List.of("alpha", "12", "3rc"));
+    SemanticVersion v2 = createPreParsedMock(List.of("alpha", "12", "3rd"));
+    SemanticVersion v3 = createPreParsedMock(List.of("alpha", "13"));
+    SemanticVersion impl1 = valueOf("1.0.0-alpha.12.3rc");
+    TestUtil.verifySortOrder(true, v1, v2, v3);
+    assertEquals(0, v1.compareTo(impl1));
+    assertEquals(0, impl1.compareTo(v1));
+    assertEquals(impl1, v1);
+    TestUtil.verifySortOrder(true, impl1, v2, valueOf("1.0.0-alpha.12.4"), v3, valueOf("1.0.0-alpha.13a"));
+    assertEquals(impl1, SemanticVersionImpl.copyOf(v1));
+  }
+
+  /**
+   * A version of 1.0.0 whose identifiers are only available from {@link SemanticVersion#prereleaseIdentifiers()}, like
+   * an implementation backed by pre-parsed data that returns them without copying, so that any use of
+   * {@link SemanticVersion#prereleaseVersion()} fails.
+   */
+  private static SemanticVersion createPreParsedMock(List<String> prerelease) {
+    SemanticVersion mock = Mockito.mock(SemanticVersion.class);
+    when (mock.majorVersion()).thenReturn(1L);
+    when (mock.isPrerelease()).thenReturn(true);
+    when (mock.prereleaseVersion()).thenThrow(new AssertionError("Identifiers should not be materialized"));
+    when (mock.compareTo(any(SemanticVersion.class))).thenCallRealMethod();
+    when (mock.prereleaseIdentifiers()).thenReturn(prerelease);
+    when (mock.toString()).thenReturn("1.0.0-" + String.join(".", prerelease));
+    return mock;
+  }
+
+  @Test
+  public void testListBackedIdentifiersReadOncePerComparison() {
+    List<String> identifiers = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      identifiers.add((i % 2 == 0) ? Integer.toString(i) : "x" + i);
+    }
+    SemanticVersion version = Mockito.mock(SemanticVersion.class, Mockito.CALLS_REAL_METHODS);
+    doReturn(1L).when(version).majorVersion();
+    doReturn(true).when(version).isPrerelease();
+    doAnswer(invocation -> new ArrayList<>(identifiers)).when(version).prereleaseVersion();
+    SemanticVersion impl = valueOf("1.0.0-" + String.join(".", identifiers));
+    assertEquals(0, BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(version, impl));
+    assertEquals(0, comparePrereleaseVersions(impl, version));
+    assertEquals(impl, version);
+    assertEquals(impl, SemanticVersionImpl.copyOf(version));
+    verify(version, times(4)).prereleaseVersion();
+  }
+
+  @Test
+  public void testLazyValueOfMatchesValueOf() {
+    for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
+      SemanticVersion eager = valueOf(versionString);
+      SemanticVersion lazy = lazyValueOf(versionString, false);
+      assertEquals(eager.majorVersion(), lazy.majorVersion());
+      assertSame(versionString, lazy.toString());
+      assertEquals(eager, lazy);
+      assertEquals(lazy, eager);
+      assertEquals(eager.hashCode(), lazy.hashCode());
+      assertEquals(0, TOTAL_ORDERING.compare(eager, lazy));
+      assertEquals(eager.prereleaseVersion(), lazy.prereleaseVersion());
+      assertEquals(eager.buildMetadata(), lazy.buildMetadata());
+      assertEquals(lazy, lazyValueOf(versionString, false));
+    }
+    TestUtil.verifySortOrder(true, Arrays.stream(TEST_VERSION_STRINGS_FOR_SORTING)
+        .map(versionString -> lazyValueOf(versionString, false)).toArray(SemanticVersion[]::new));
+    for (String versionString : LENIENT_VERSIONS) {
+      SemanticVersion eager = valueOf(versionString, true);
+      SemanticVersion lazy = lazyValueOf(versionString, true);
+      assertEquals(eager.majorVersion(), lazy.majorVersion(), versionString);
+      assertEquals(eager.toString(), lazy.toString(), versionString);
+      assertEquals(eager, lazy, versionString);
+      assertEquals(eager.hashCode(), lazy.hashCode(), versionString);
+      assertThrows(IllegalArgumentException.class, () -> lazyValueOf(versionString, false));
+    }
+    assertEquals("1.2.3-1.a.0b+01", lazyValueOf("01.02.3-01.a.00b+01", false).toString());
+    assertEquals("1.2.3-a-01", lazyValueOf("1.2.3-a-01", false).toString());
+    assertEquals(MAX_UNSIGNED_LONG, lazyValueOf("18446744073709551615.0.0", false).majorVersion());
+    for (String invalid : INVALID_VERSIONS_EVEN_LENIENT) {
+      assertThrows(IllegalArgumentException.class, () -> lazyValueOf(invalid, true), invalid);
+    }
+  }
+
   @Test
   public void testEqualsAndHashCodeConsistent() {
     for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
@@ -148,7 +273,9 @@ public class SemanticVersionTest {
   }
   @Test
   public void testWithEqualsVerifier() {
-    EqualsVerifier.forClass(SemanticVersionImpl.class).verify();
+    EqualsVerifier.forClass(SemanticVersionImpl.class)
+        .withCachedHashCode("hash", "computeHashCode", SemanticVersionImpl.copyOf(valueOf("1.2.3-rc.1+build")))
+        .verify();
   }
   @Test
   public void testToString() {
@@ -186,6 +313,95 @@ public class SemanticVersionTest {
     assertNotValidVersions(INVALID_VERSIONS_EVEN_LENIENT, true);
   }
 
+  @Test
+  public void testTryParseAgreesWithValueOf() {
+    for (boolean lenient : new boolean[]{false, true}) {
+      for (String[] versionStrings : List.of(TEST_VERSION_STRINGS_FOR_SORTING, INVALID_VERSIONS_EVEN_LENIENT,
+          LENIENT_VERSIONS)) {
+        for (String versionString : versionStrings) {
+          SemanticVersion expected;
+          try {
+            expected = valueOf(versionString, lenient);
+          } catch (IllegalArgumentException e) {
+            expected = null;
+          }
+          ParseResult result = tryParse(versionString, lenient);
+          assertEquals(expected, result.version(), versionString);
+          assertEquals(expected, parseOrNull(versionString, lenient), versionString);
+          assertEquals(expected != null, result.isSuccess(), versionString);
+          assertEquals(expected != null, isValid(versionString, lenient), versionString);
+          if (expected == null) {
+            assertNotNull(result.error());
+            assertThrows(IllegalArgumentException.class, result::orElseThrow);
+          } else {
+            assertNull(result.error());
+            assertEquals(-1, result.errorIndex());
+            assertEquals(expected, result.orElseThrow());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTryParseErrors() {
+    assertParseError(ParseError.MISSING_MAJOR_VERSION, 0, "", false);
+    assertParseError(ParseError.MISSING_MAJOR_VERSION, 0, "..", true);
+    assertParseError(ParseError.WRONG_COMPONENT_COUNT, 3, "1.2", false);
+    assertParseError(ParseError.WRONG_COMPONENT_COUNT, 6, "1.2.3.4", false);
+    assertParseError(ParseError.EMPTY_COMPONENT, 2, "1..2", true);
+    assertParseError(ParseError.INVALID_COMPONENT_CHARACTER, 2, "1.x.3", false);
+    assertParseError(ParseError.NUMERIC_OVERFLOW, 4, "1.0.18446744073709551616", false);
+    assertParseError(ParseError.NUMERIC_OVERFLOW, 6, "1.0.0-18446744073709551616", true);
+    assertParseError(ParseError.EMPTY_PRERELEASE_IDENTIFIER, 12, "1.0.0-alpha.", false);
+    assertParseError(ParseError.INVALID_PRERELEASE_CHARACTER, 7, "1.0.0-a_b", true);
+    assertParseError(ParseError.EMPTY_BUILD_METADATA, 6, "1.0.0+", false);
+    assertParseError(ParseError.INVALID_BUILD_METADATA_CHARACTER, 7, "1.0.0+a_b", false);
+  }
+
+  @Test
+  public void testParseFromBuffers() {
+    for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
+      SemanticVersion expected = valueOf(versionString + "+build-7");
+      String padded = "\"version\": " + expected + ",";
+      int start = padded.indexOf(' ') + 1;
+      int end = padded.length() - 1;
+      int length = end - start;
+      byte[] bytes = padded.getBytes(StandardCharsets.US_ASCII);
+      ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+      assertEquals(expected, valueOf(padded, start, end, false));
+      assertEquals(expected, valueOf(padded.toCharArray(), start, length, false));
+      assertEquals(expected, valueOf(bytes, start, length, false));
+      assertEquals(expected, valueOf(buffer, start, length, false));
+      assertEquals(bytes.length, buffer.position(), "Buffer position shouldn't change");
+      assertEquals(expected, tryParse(new StringBuilder(padded), start, end, false).version());
+      assertEquals(expected, tryParse(padded.toCharArray(), start, length, false).version());
+      assertEquals(expected, tryParse(bytes, start, length, false).version());
+      assertEquals(expected, tryParse(buffer, start, length, false).version());
+    }
+    byte[] invalid = "v=1.x.3;".getBytes(StandardCharsets.US_ASCII);
+    assertThrows(NumberFormatException.class, () -> valueOf(invalid, 2, 5, false));
+    ParseResult result = tryParse(invalid, 2, 5, false);
+    assertEquals(ParseError.INVALID_COMPONENT_CHARACTER, result.error());
+    assertEquals(4, result.errorIndex());
+    assertThrows(IndexOutOfBoundsException.class, () -> valueOf(invalid, 2, 10, false));
+  }
+
+  @Test
+  public void testEmptyComponentIsNumberFormatError() {
+    assertThrows(NumberFormatException.class, () -> valueOf("1..2"));
+    assertThrows(NumberFormatException.class, () -> valueOf(".1.2"));
+    assertThrows(NumberFormatException.class, () -> valueOf("1..2", true));
+    assertThrows(NumberFormatException.class, () -> valueOf("", true));
+  }
+
+  private static void assertParseError(ParseError expectedError, int expectedIndex, String input, boolean lenient) {
+    ParseResult result = tryParse(input, lenient);
+    assertNull(result.version());
+    assertEquals(expectedError, result.error(), input);
+    assertEquals(expectedIndex, result.errorIndex(), input);
+  }
+
   @Test
   public void testValueOfStrict() {
     for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
@@ -407,6 +623,84 @@ public class SemanticVersionTest {
     assertTrue(prerelease.compareTo(releaseVersion) < 0);
   }
 
+  @Test
+  public void testPackedReleaseVersionMatchesImpl() {
+    long maxPacked = (1L << PackedReleaseVersion.COMPONENT_BITS) - 1;
+    long[] components = {0, 1, 2, 9, 10, maxPacked - 1, maxPacked};
+    List<SemanticVersion> packed = new ArrayList<>();
+    for (long major : components) {
+      for (long minor : components) {
+        for (long patch : components) {
+          SemanticVersion version = valueOf(major, minor, patch, null, null);
+          assertTrue(version instanceof PackedReleaseVersion, version.toString());
+          SemanticVersion unpacked = new SemanticVersionImpl(major, minor, patch, null, null);
+          assertEquals(unpacked, version);
+          assertEquals(version, unpacked);
+          assertEquals(unpacked.hashCode(), version.hashCode());
+          assertEquals(unpacked.toString(), version.toString());
+          assertEquals(0, version.compareTo(unpacked));
+          assertEquals(0, unpacked.compareTo(version));
+          assertEquals(unpacked.nextPatchRelease(), version.nextPatchRelease());
+          assertEquals(unpacked.nextMinorRelease(), version.nextMinorRelease());
+          assertEquals(unpacked.nextMajorRelease(), version.nextMajorRelease());
+          assertEquals(unpacked.withBuildMetadata("b"), version.withBuildMetadata("b"));
+          assertEquals(unpacked.prereleaseWithIdentifiers(List.of("rc")),
+              version.prereleaseWithIdentifiers(List.of("rc")));
+          packed.add(version);
+        }
+      }
+    }
+    TestUtil.verifySortOrder(true, packed.toArray(SemanticVersion[]::new));
+    assertFalse(valueOf(maxPacked + 1, 0, 0, null, null) instanceof PackedReleaseVersion);
+    assertFalse(valueOf("1.2.3+build") instanceof PackedReleaseVersion);
+    assertFalse(valueOf("1.2.3-rc") instanceof PackedReleaseVersion);
+  }
+
+  @Test
+  public void testSuccessorAndPredecessor() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
+      versions.add(valueOf(versionString));
+    }
+    for (Comparator<SemanticVersion> ordering : List.of(BUILD_METADATA_AGNOSTIC_COMPARATOR, TOTAL_ORDERING)) {
+      for (SemanticVersion version : versions) {
+        SemanticVersion successor = SemanticVersion.successor(version, ordering);
+        if (successor == null) {
+          assertSame(BUILD_METADATA_AGNOSTIC_COMPARATOR, ordering);
+          assertEquals(0, ordering.compare(version, SemanticVersion.MAX_VALUE));
+          continue;
+        }
+        assertTrue(ordering.compare(version, successor) < 0);
+        for (SemanticVersion other : versions) {
+          assertFalse(ordering.compare(version, other) < 0 && ordering.compare(other, successor) < 0,
+              () -> other + " is between " + version + " and " + successor);
+        }
+        SemanticVersion predecessor = SemanticVersion.predecessor(successor, ordering);
+        assertNotNull(predecessor, successor::toString);
+        assertEquals(0, ordering.compare(version, predecessor));
+        SemanticVersion ownPredecessor = SemanticVersion.predecessor(version, ordering);
+        if (ownPredecessor != null) {
+          assertTrue(ordering.compare(ownPredecessor, version) < 0);
+          assertEquals(0, ordering.compare(version, SemanticVersion.successor(ownPredecessor, ordering)));
+        }
+      }
+    }
+    assertEquals(valueOf("1.2.3-rc.0"), SemanticVersion.successor(valueOf("1.2.3-rc+build"),
+        BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertEquals(valueOf("1.2.4-0"), SemanticVersion.successor(valueOf("1.2.3"), BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertEquals(valueOf("1.2.3+-"), SemanticVersion.successor(valueOf("1.2.3"), TOTAL_ORDERING));
+    assertEquals(valueOf("1.2.3"), SemanticVersion.predecessor(valueOf("1.2.4-0"), BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertEquals(valueOf("1.1." + MAX_UNSIGNED_LONG_STRING),
+        SemanticVersion.predecessor(valueOf("1.2.0-0"), BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertNull(SemanticVersion.predecessor(valueOf("1.2.3"), BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertNull(SemanticVersion.predecessor(valueOf("1.2.3-1"), BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertNull(SemanticVersion.predecessor(SemanticVersion.MIN_VALUE, BUILD_METADATA_AGNOSTIC_COMPARATOR));
+    assertEquals(valueOf("1.2.3+a"), SemanticVersion.predecessor(valueOf("1.2.3+a-"), TOTAL_ORDERING));
+    assertNull(SemanticVersion.predecessor(valueOf("1.2.3+a"), TOTAL_ORDERING));
+    assertThrows(IllegalArgumentException.class,
+        () -> SemanticVersion.successor(SemanticVersion.MIN_VALUE, Comparator.naturalOrder()));
+  }
+
   @Test
   public void testNextMajorMinorPatch() {
     for (String versionString : TEST_VERSION_STRINGS_FOR_SORTING) {
@@ -474,6 +768,11 @@ public class SemanticVersionTest {
     when (mock.isPrerelease()).thenReturn(prerelease != null);
     when (mock.prereleaseVersion()).thenReturn(prerelease);
     when (mock.compareTo(any(SemanticVersion.class))).thenCallRealMethod();
+    when (mock.prereleaseIdentifierCount()).thenCallRealMethod();
+    when (mock.prereleaseIdentifierAt(anyInt())).thenCallRealMethod();
+    when (mock.isNumericIdentifier(anyInt())).thenCallRealMethod();
+    when (mock.numericIdentifierAt(anyInt())).thenCallRealMethod();
+    when (mock.prereleaseIdentifiers()).thenCallRealMethod();
     when (mock.toString()).thenReturn(toUnsignedString(major) + '.' + toUnsignedString(minor) + '.' + toUnsignedString(patch) +
         (prerelease == null ? "" : "-" + String.join(".", prerelease)));
     when (mock.clone()).thenAnswer(invocation -> createMock(major, minor, patch, prerelease));
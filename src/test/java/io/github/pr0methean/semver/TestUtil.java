@@ -2,9 +2,140 @@ package io.github.pr0methean.semver;
 
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestUtil {
+  private static final String MAX_UNSIGNED_LONG_STRING = Long.toUnsignedString(-1);
+  private static final String MAX_UNSIGNED_LONG_MINUS_ONE_STRING = Long.toUnsignedString(-2);
+
+  /**
+   * Valid versions, without build metadata, in strictly ascending order.
+   */
+  public static final String[] TEST_VERSION_STRINGS_FOR_SORTING = {
+      "1.0.0-0",
+      "1.0.0-0.0",
+      "1.0.0-0.1",
+      "1.0.0-0a",
+      "1.0.0-0a.0",
+      "1.0.0-0a.1",
+      "1.0.0-0beta",
+      "1.0.0-1",
+      "1.0.0-1.0",
+      "1.0.0-1.0.0",
+      "1.0.0-1.1",
+      "1.0.0-1.1.0",
+      "1.0.0-1.1.0a",
+      "1.0.0-1.1.2",
+      "1.0.0-1a",
+      "1.0.0-1a.0",
+      "1.0.0-1a.1",
+      "1.0.0-1b",
+      "1.0.0-3",
+      "1.0.0-3a",
+      "1.0.0-3b",
+      "1.0.0-9",
+      "1.0.0-10",
+      "1.0.0-" + MAX_UNSIGNED_LONG_STRING,
+      "1.0.0-alpha",
+      "1.0.0-alpha.0",
+      "1.0.0-alpha.1",
+      "1.0.0-alpha.1a",
+      "1.0.0-alpha.1a.bravo",
+      "1.0.0-alpha.5",
+      "1.0.0-alpha.5a",
+      "1.0.0-alpha.5a.alpha",
+      "1.0.0-alpha.5a.bravo",
+      "1.0.0-alpha." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
+      "1.0.0-alpha." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + "a",
+      "1.0.0-alpha." + MAX_UNSIGNED_LONG_STRING,
+      "1.0.0-alpha." + MAX_UNSIGNED_LONG_STRING + "a",
+      "1.0.0-alpha.beta",
+      "1.0.0-beta",
+      "1.0.0-beta.0",
+      "1.0.0-beta.2",
+      "1.0.0-beta.9",
+      "1.0.0-beta.10",
+      "1.0.0-beta.11",
+      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING,
+      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + ".1",
+      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
+      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
+      "1.0.0-beta." + MAX_UNSIGNED_LONG_STRING + "a",
+      "1.0.0-beta0",
+      "1.0.0-beta1",
+      "1.0.0-rc.1",
+      "1.0.0",
+      "1.0.1",
+      "1.0." + Long.MAX_VALUE,
+      "1.0." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING,
+      "1.0." + MAX_UNSIGNED_LONG_STRING,
+      "1.1.0",
+      "1.1.1",
+      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + ".0",
+      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0",
+      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0.1",
+      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-0a",
+      "1." + MAX_UNSIGNED_LONG_MINUS_ONE_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
+      "1." + MAX_UNSIGNED_LONG_STRING + ".0-" + MAX_UNSIGNED_LONG_STRING,
+      "1." + MAX_UNSIGNED_LONG_STRING + ".0",
+      "1." + MAX_UNSIGNED_LONG_STRING + ".1",
+      "1." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + "-a",
+      "1." + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
+      "2.0.0",
+      Long.MAX_VALUE + ".0.0",
+      MAX_UNSIGNED_LONG_MINUS_ONE_STRING + ".0.0",
+      MAX_UNSIGNED_LONG_STRING + ".0.0",
+      MAX_UNSIGNED_LONG_STRING + ".0." + MAX_UNSIGNED_LONG_STRING,
+      MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + ".0",
+      MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING + '.' + MAX_UNSIGNED_LONG_STRING,
+  };
+
+  /**
+   * The seed for tests that compare against a brute-force implementation on random input, so that failures reproduce.
+   */
+  public static final long RANDOM_SEED = 0x5E3A7E5L;
+
+  /**
+   * Versions on and around the boundaries between release lines and their prereleases, in ascending order, to use as
+   * range bounds and as probes.
+   */
+  public static final List<SemanticVersion> BOUNDARY_VERSIONS = List.of(
+      "0.0.0-0", "0.0.0-0.0", "0.0.0-alpha", "0.0.0", "0.1.0", "1.0.0-0", "1.0.0-0.0", "1.0.0-0.1", "1.0.0-rc.1",
+      "1.0.0", "1.0.1-0", "1.0.1", "1.1.0-beta", "1.1.0", "1.2.3", "2.0.0-0", "2.0.0", "2.5.0", "3.0.0", "10.0.0",
+      "18446744073709551615.18446744073709551615.0", "18446744073709551615.18446744073709551615.18446744073709551615"
+  ).stream().map(SemanticVersion::valueOf).toList();
+
+  /**
+   * Versions from several release lines, including prereleases and build-metadata variants, in ascending order under
+   * {@link SemanticVersion#TOTAL_ORDERING}.
+   */
+  public static final List<SemanticVersion> VERSIONS_WITH_BUILD_METADATA = List.of(
+      "0.0.0-0", "0.0.0", "0.1.0-alpha", "0.1.0", "0.1.1", "1.0.0-0", "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-beta+b",
+      "1.0.0-rc.1", "1.0.0", "1.0.0+a", "1.0.0+b", "1.0.0+build1", "1.0.1-rc", "1.0.1", "1.1.0-beta", "1.1.0", "1.2.0",
+      "1.2.3-beta", "1.2.3", "1.9.0", "1.10.0-2", "2.0.0-0", "2.0.0-rc.1", "2.0.0-rc.2+b", "2.0.0-rc.2+c", "2.0.0",
+      "2.5.0", "3.0.0-alpha", "2097152.0.0", "18446744073709551615.0.0"
+  ).stream().map(SemanticVersion::valueOf).toList();
+
+  /**
+   * @return a union of up to 3 random ranges between {@link #BOUNDARY_VERSIONS}, each of which may be unbounded
+   */
+  public static VersionRangeSet randomRangeSet(Random random) {
+    List<VersionRange> ranges = new ArrayList<>();
+    for (int i = random.nextInt(4); i > 0; i--) {
+      ranges.add(VersionRange.between(randomBound(random), random.nextBoolean(), randomBound(random),
+          random.nextBoolean()));
+    }
+    return VersionRangeSet.of(ranges);
+  }
+
+  private static SemanticVersion randomBound(Random random) {
+    return random.nextInt(4) == 0 ? null : BOUNDARY_VERSIONS.get(random.nextInt(BOUNDARY_VERSIONS.size()));
+  }
+
   @SuppressWarnings("unchecked")
   @SafeVarargs
   public static <T extends Comparable<T>> void verifySortOrder(boolean strict, T... expectedOrder) {
@@ -0,0 +1,121 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionConstraintTest {
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "1.2.3; 1.2.3, 1.2.3+build; 1.2.4, 1.2.3-rc",
+      "=1.2.3; 1.2.3; 1.2.2",
+      "1.2; 1.2.0, 1.2.99; 1.2.0-rc, 1.3.0-0, 1.1.9",
+      "1.2.x; 1.2.0, 1.2.99; 1.3.0-0",
+      "1.x; 1.0.0, 1.99.0; 2.0.0-rc, 0.9.0",
+      "*; 0.0.0-0, 99.0.0; ",
+      "; 0.0.0-0, 99.0.0; ",
+      ">1.2.3; 1.2.4-0, 2.0.0; 1.2.3, 1.2.3-rc",
+      ">1.2; 1.3.0-0, 1.3.0; 1.2.99",
+      ">=1.2.3; 1.2.3, 2.0.0; 1.2.3-rc",
+      "<1.2.3; 1.2.3-rc, 0.0.0; 1.2.3",
+      "<1.2; 1.1.99, 1.1.99-rc; 1.2.0-0, 1.2.0-rc, 1.2.0",
+      "<=1.2.3; 1.2.3; 1.2.4-0",
+      "<=1.2; 1.2.99; 1.3.0-0",
+      "~1.2.3; 1.2.3, 1.2.99; 1.3.0-0, 1.2.2",
+      "~1.2; 1.2.0, 1.2.99; 1.3.0",
+      "~1; 1.0.0, 1.99.0; 2.0.0-0",
+      "^1.2.3; 1.2.3, 1.99.0; 2.0.0-0, 1.2.2",
+      "^0.2.3; 0.2.3, 0.2.99; 0.3.0-0",
+      "^0.0.3; 0.0.3; 0.0.4-0",
+      "^0.0.3-beta; 0.0.3-beta, 0.0.3; 0.0.3-alpha",
+      "^0.0; 0.0.0, 0.0.99; 0.1.0-0",
+      "^0.x; 0.0.0, 0.99.0; 1.0.0-0",
+      "^1.2.x; 1.2.0, 1.99.0; 2.0.0-0",
+      ">=1.2.3 <2; 1.2.3, 1.99.0; 2.0.0-0, 1.2.2",
+      ">= 1.2.3, < 2; 1.2.3; 2.0.0",
+      "v1.2.3; 1.2.3; 1.2.4",
+      "1.2.3 - 2.3.4; 1.2.3, 2.3.4; 2.3.5-0, 1.2.2",
+      "1.2 - 2.3; 1.2.0, 2.3.99; 2.4.0-0, 1.2.0-rc",
+      "1.0.0 || >=3 <4; 1.0.0, 3.5.0; 2.0.0, 4.0.0",
+      "<1 || ; 99.0.0; ",
+      "[1.0,2.0); 1.0.0, 1.9.9, 2.0.0-rc; 2.0.0, 0.9.0",
+      "(1.0,2.0]; 1.0.1, 2.0.0; 1.0.0, 2.0.1",
+      "[1.5]; 1.5.0; 1.5.1",
+      "(,1.0],[1.2,); 0.1.0, 1.0.0, 1.2.0; 1.1.0",
+      "[1.2.0-rc.1,1.2.0]; 1.2.0-rc.1, 1.2.0-rc.2, 1.2.0; 1.2.0-beta",
+      "(,); 0.0.0-0; "
+  })
+  public void testMatching(String constraint, String matching, String notMatching) {
+    VersionConstraint parsed = VersionConstraint.parse((constraint == null) ? "" : constraint);
+    for (String version : split(matching)) {
+      assertTrue(parsed.test(SemanticVersion.valueOf(version)), () -> constraint + " should match " + version);
+    }
+    for (String version : split(notMatching)) {
+      assertFalse(parsed.test(SemanticVersion.valueOf(version)), () -> constraint + " shouldn't match " + version);
+    }
+  }
+
+  private static List<String> split(String versions) {
+    return (versions == null) ? List.of() : List.of(versions.strip().split("\\s*,\\s*"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "<*", ">x", ">=2 <1", "(1.0,1.0)", "[2.0,1.0]", "<0.0.0-0", "(0.0.0,0.0.0)"
+  })
+  public void testEmpty(String constraint) {
+    VersionConstraint parsed = VersionConstraint.parse(constraint);
+    assertTrue(parsed.isEmpty());
+    assertFalse(parsed.test(SemanticVersion.MIN_VALUE));
+    assertFalse(parsed.test(SemanticVersion.MAX_VALUE));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "1.x.3", "1.2.3.4", "abc", ">=", "1.-2", "+1.2.3", "18446744073709551616", "[1.0", "[1.0,2.0) 3",
+      "(1.0)", "[*]", "1.2.3-", "~>1.2"
+  })
+  public void testInvalid(String constraint) {
+    assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(constraint));
+  }
+
+  @Test
+  public void testRanges() {
+    VersionConstraint constraint = VersionConstraint.parse("^1.2.3 || 3.x");
+    assertEquals(List.of(VersionRange.between(SemanticVersion.valueOf("1.2.3"), true,
+            SemanticVersion.valueOf("2.0.0-0"), false),
+        VersionRange.between(SemanticVersion.valueOf("3.0.0"), true, SemanticVersion.valueOf("4.0.0-0"), false)),
+        constraint.ranges());
+    assertEquals("[1.2.3,2.0.0-0)", constraint.ranges().get(0).toString());
+    assertEquals("^1.2.3 || 3.x", constraint.toString());
+    assertEquals(VersionRange.all(), VersionConstraint.parse("(,)").ranges().get(0));
+    assertTrue(VersionRange.exactly(SemanticVersion.valueOf("1.0.0+a")).contains(SemanticVersion.valueOf("1.0.0+b")));
+    assertTrue(VersionConstraint.parse("<=18446744073709551615").test(SemanticVersion.MAX_VALUE));
+    assertTrue(VersionConstraint.parse("^18446744073709551615").test(SemanticVersion.MAX_VALUE));
+  }
+
+  @Test
+  public void testReleaseLines() {
+    assertEquals("[1.0.0-0,2.0.0-0)", VersionRange.releaseLine(1).toString());
+    assertEquals("[1.2.0-0,1.3.0-0)", VersionRange.releaseLine(1, 2).toString());
+    assertEquals("[1.2.3-0,1.2.4-0)", VersionRange.releaseLine(1, 2, 3).toString());
+    assertEquals("[1.18446744073709551615.0-0,2.0.0-0)", VersionRange.releaseLine(1, -1).toString());
+    assertNull(VersionRange.releaseLine(-1).upper());
+    assertEquals(VersionConstraint.parse("1.2.x").rangeSet(), VersionConstraint.parse("~1.2").rangeSet());
+    assertEquals(VersionRangeSet.of(VersionRange.releaseLine(1, 2)), VersionRangeSet.of(
+        VersionRange.lessThan(SemanticVersion.valueOf("1.2.0-0")), VersionRange.atLeast(
+            SemanticVersion.valueOf("1.3.0-0"))).complement());
+    List<SemanticVersion> versions = List.of(SemanticVersion.valueOf("1.1.9"), SemanticVersion.valueOf("1.2.0-0"),
+        SemanticVersion.valueOf("1.2.0-0+a"), SemanticVersion.valueOf("1.2.5+b"), SemanticVersion.valueOf("1.3.0-0"));
+    TreeSet<SemanticVersion> set = new TreeSet<>(SemanticVersion.TOTAL_ORDERING);
+    set.addAll(versions);
+    VersionRange line = VersionRange.releaseLine(1, 2);
+    assertEquals(versions.subList(1, 4), List.copyOf(set.subSet(line.lower(), true, line.upper(), false)));
+  }
+}
@@ -0,0 +1,63 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionRangeIndexTest {
+  @Test
+  public void testMatchesBruteForce() {
+    Random random = new Random(TestUtil.RANDOM_SEED);
+    List<SemanticVersion> versions = TestUtil.BOUNDARY_VERSIONS;
+    for (int trial = 0; trial < 200; trial++) {
+      List<VersionRangeSet> sets = new ArrayList<>();
+      List<Integer> ids = new ArrayList<>();
+      for (int i = random.nextInt(40); i > 0; i--) {
+        ids.add(sets.size());
+        sets.add(TestUtil.randomRangeSet(random));
+      }
+      VersionRangeIndex<Integer> index = VersionRangeIndex.of(ids, sets::get);
+      assertEquals(ids.size(), index.size());
+      List<List<Integer>> batch = index.matchingAll(versions);
+      for (int v = 0; v < versions.size(); v++) {
+        SemanticVersion version = versions.get(v);
+        List<Integer> expected = new ArrayList<>();
+        for (int id : ids) {
+          if (sets.get(id).contains(version)) {
+            expected.add(id);
+          }
+        }
+        assertEquals(expected, sorted(index.matching(version)), version::toString);
+        assertEquals(expected, sorted(batch.get(v)), version::toString);
+      }
+    }
+  }
+
+  @Test
+  public void testAdvisories() {
+    List<String> advisories = List.of("<1.0.0", ">=1.2.0 <1.2.5 || >=2.0.0-0 <2.0.1", "^2", "*", "[3.0.0]", "<0.0.0-0");
+    VersionRangeIndex<String> index = VersionRangeIndex.of(advisories,
+        advisory -> VersionConstraint.parse(advisory).rangeSet());
+    assertEquals(List.of("*", "<1.0.0"), sorted(index.matching(SemanticVersion.valueOf("0.9.0+build"))));
+    assertEquals(List.of("*", ">=1.2.0 <1.2.5 || >=2.0.0-0 <2.0.1", "^2"),
+        sorted(index.matching(SemanticVersion.valueOf("2.0.0"))));
+    assertEquals(List.of("*", "[3.0.0]"), sorted(index.matching(SemanticVersion.valueOf("3.0.0"))));
+    assertEquals(List.of("*"), index.matching(SemanticVersion.valueOf("3.0.1")));
+    assertEquals(List.of(), VersionRangeIndex.of(List.<String>of(), advisory -> VersionRangeSet.all())
+        .matching(SemanticVersion.MIN_VALUE));
+    assertThrows(IllegalArgumentException.class, () -> index.matchingAll(
+        List.of(SemanticVersion.valueOf("2.0.0"), SemanticVersion.valueOf("1.0.0"))));
+  }
+
+  private static <T extends Comparable<? super T>> List<T> sorted(Iterable<T> values) {
+    List<T> copy = new ArrayList<>();
+    values.forEach(copy::add);
+    copy.sort(Comparator.naturalOrder());
+    return copy;
+  }
+}
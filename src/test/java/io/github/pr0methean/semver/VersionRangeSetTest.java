@@ -0,0 +1,67 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionRangeSetTest {
+  private static boolean anyContains(List<VersionRange> ranges, SemanticVersion version) {
+    return ranges.stream().anyMatch(range -> range.contains(version));
+  }
+
+  @Test
+  public void testAlgebraMatchesMembership() {
+    Random random = new Random(TestUtil.RANDOM_SEED);
+    for (int trial = 0; trial < 2000; trial++) {
+      VersionRangeSet a = TestUtil.randomRangeSet(random);
+      VersionRangeSet b = TestUtil.randomRangeSet(random);
+      VersionRangeSet union = a.union(b);
+      VersionRangeSet intersection = a.intersection(b);
+      VersionRangeSet complement = a.complement();
+      boolean anyInBoth = false;
+      for (SemanticVersion version : TestUtil.BOUNDARY_VERSIONS) {
+        boolean inA = a.contains(version);
+        boolean inB = b.contains(version);
+        anyInBoth |= inA && inB;
+        assertEquals(inA, anyContains(a.ranges(), version));
+        assertEquals(inA || inB, union.contains(version));
+        assertEquals(inA && inB, intersection.contains(version));
+        assertEquals(!inA, complement.contains(version));
+      }
+      if (anyInBoth) {
+        assertTrue(a.intersects(b));
+      }
+      assertEquals(!intersection.isEmpty(), a.intersects(b));
+      assertEquals(a, complement.complement());
+      assertEquals(union, b.union(a));
+      assertEquals(intersection, b.intersection(a));
+      assertEquals(union.complement(), complement.intersection(b.complement()));
+      assertEquals(VersionRangeSet.all(), a.union(complement));
+      assertTrue(a.intersection(complement).isEmpty());
+      assertEquals(a, VersionRangeSet.of(a.ranges()));
+      assertEquals(a, VersionConstraint.parse(a.toString()).rangeSet());
+    }
+  }
+
+  @Test
+  public void testExactBounds() {
+    SemanticVersion release = SemanticVersion.valueOf("1.0.0");
+    assertEquals(VersionRangeSet.of(VersionRange.exactly(release)),
+        VersionRangeSet.of(VersionRange.between(release, true, SemanticVersion.valueOf("1.0.1-0"), false)));
+    assertEquals(VersionRangeSet.all(), VersionRangeSet.of(
+        VersionRange.atMost(SemanticVersion.valueOf("1.0.0-0")),
+        VersionRange.atLeast(SemanticVersion.valueOf("1.0.0-0.0"))));
+    assertEquals(VersionRangeSet.all(), VersionRangeSet.of(VersionRange.atLeast(SemanticVersion.MIN_VALUE)));
+    assertTrue(VersionRange.between(SemanticVersion.valueOf("1.0.0-0"), false,
+        SemanticVersion.valueOf("1.0.0-0.0"), false).isEmpty());
+    assertTrue(VersionRange.lessThan(SemanticVersion.MIN_VALUE).isEmpty());
+    assertTrue(VersionRange.greaterThan(SemanticVersion.MAX_VALUE).isEmpty());
+    assertFalse(VersionRange.between(release, false, SemanticVersion.valueOf("1.0.1-0"), true).isEmpty());
+    assertEquals("[1.0.0,1.0.1-0)", VersionRangeSet.of(VersionRange.exactly(release)).toString());
+    assertEquals("(,1.0.0),[2.0.0,)", VersionConstraint.parse("<1.0.0 || >=2.0.0").rangeSet().toString());
+    assertEquals("(0.0.0,0.0.0)", VersionRangeSet.empty().toString());
+  }
+}
@@ -0,0 +1,99 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionRegistryTest {
+  private static List<SemanticVersion> versions() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (int major = 0; major < 3; major++) {
+      for (int minor = 0; minor < 3; minor++) {
+        for (int patch = 0; patch < 3; patch++) {
+          versions.add(SemanticVersion.valueOf(major + "." + minor + "." + patch));
+          versions.add(SemanticVersion.valueOf(major + "." + minor + "." + patch + "-rc.1"));
+          versions.add(SemanticVersion.valueOf(major + "." + minor + "." + patch + "+build-" + patch));
+        }
+      }
+    }
+    return versions;
+  }
+
+  @Test
+  public void testQueriesMatchBruteForce() {
+    List<SemanticVersion> versions = versions();
+    Random random = new Random(TestUtil.RANDOM_SEED);
+    VersionRegistry<String> registry = new VersionRegistry<>();
+    Set<SemanticVersion> expected = new HashSet<>();
+    for (int step = 0; step < 1000; step++) {
+      SemanticVersion version = versions.get(random.nextInt(versions.size()));
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(version), registry.unregister("artifact", version));
+      } else {
+        assertEquals(expected.add(version), registry.register("artifact", version));
+      }
+      assertEquals(max(expected, v -> true), registry.latest("artifact"));
+      assertEquals(max(expected, v -> !v.isPrerelease()), registry.latestRelease("artifact"));
+      for (long major = 0; major < 4; major++) {
+        long finalMajor = major;
+        assertEquals(max(expected, v -> !v.isPrerelease() && v.majorVersion() == finalMajor),
+            registry.latestReleaseInMajor("artifact", major));
+        for (long minor = 0; minor < 4; minor++) {
+          long finalMinor = minor;
+          assertEquals(max(expected, v -> !v.isPrerelease() && v.majorVersion() == finalMajor
+                  && v.minorVersion() == finalMinor), registry.latestReleaseInMinor("artifact", major, minor));
+        }
+      }
+      assertEquals(expected.isEmpty() ? Set.of() : Set.of("artifact"), registry.artifacts());
+    }
+  }
+
+  private static SemanticVersion max(Set<SemanticVersion> versions, Predicate<SemanticVersion> filter) {
+    return versions.stream().filter(filter).max(SemanticVersion.TOTAL_ORDERING).orElse(null);
+  }
+
+  @Test
+  public void testConcurrentRegistration() throws Exception {
+    List<SemanticVersion> versions = versions();
+    VersionRegistry<Integer> registry = new VersionRegistry<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int offset = thread;
+        futures.add(executor.submit(() -> {
+          for (int i = offset; i < versions.size(); i += 4) {
+            for (int artifact = 0; artifact < 8; artifact++) {
+              registry.register(artifact, versions.get(i));
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    SemanticVersion latestRelease = versions.stream().filter(v -> !v.isPrerelease())
+        .max(SemanticVersion.TOTAL_ORDERING).orElseThrow();
+    for (int artifact = 0; artifact < 8; artifact++) {
+      VersionRegistry.Snapshot snapshot = registry.snapshot(artifact);
+      assertEquals(versions.size(), snapshot.versions().size());
+      assertEquals(latestRelease, snapshot.latestRelease());
+      assertEquals(SemanticVersion.valueOf("1.2.2+build-2"), snapshot.latestReleaseInMajor(1));
+    }
+    assertNull(registry.latest(8));
+    assertEquals(0, registry.snapshot(8).versions().size());
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionResolverTest {
+  private static final String[] CONSTRAINTS = {
+      "*", "^1", "^1.0.0-rc.1", "~1.1", ">=1.1.0-beta <2", "<2.0.0-rc.2", ">=2.0.0-0", "1.2.3-beta", "^0.1",
+      "[1.0,2.0)", "(,1.0.0-rc.1],[2.0.0-rc.1,2.0.0-rc.1]", "<0.0.0-0", ">=3.0.0-alpha", "1.x || >=2.5.0",
+      ">=1.0.0 <1.0.1"
+  };
+
+  private static SemanticVersion bruteForce(List<SemanticVersion> candidates, VersionConstraint constraint,
+      boolean includePrereleases) {
+    SemanticVersion best = null;
+    for (SemanticVersion candidate : candidates) {
+      if (constraint.test(candidate)
+          && (includePrereleases || !candidate.isPrerelease() || constraint.namedPrereleaseLines().contains(candidate))
+          && (best == null || SemanticVersion.TOTAL_ORDERING.compare(candidate, best) > 0)) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  @Test
+  public void testMatchesBruteForce() {
+    Random random = new Random(TestUtil.RANDOM_SEED);
+    List<VersionConstraint> constraints = new ArrayList<>();
+    for (String constraint : CONSTRAINTS) {
+      constraints.add(VersionConstraint.parse(constraint));
+    }
+    for (int trial = 0; trial < 300; trial++) {
+      List<SemanticVersion> candidates = new ArrayList<>();
+      for (SemanticVersion version : TestUtil.VERSIONS_WITH_BUILD_METADATA) {
+        if (random.nextInt(3) != 0) {
+          candidates.add(version);
+        }
+      }
+      VersionResolver resolver = VersionResolver.of(candidates);
+      for (boolean includePrereleases : new boolean[] {false, true}) {
+        List<SemanticVersion> batch = resolver.highestAll(constraints, includePrereleases);
+        for (int i = 0; i < constraints.size(); i++) {
+          VersionConstraint constraint = constraints.get(i);
+          SemanticVersion expected = bruteForce(candidates, constraint, includePrereleases);
+          assertEquals(expected, resolver.highest(constraint, includePrereleases), constraint::toString);
+          assertEquals(expected, batch.get(i), constraint::toString);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPrereleasesNamedByConstraint() {
+    VersionResolver resolver = VersionResolver.of(List.of(SemanticVersion.valueOf("1.2.3-rc"),
+        SemanticVersion.valueOf("1.2.4-beta"), SemanticVersion.valueOf("1.2.2"), SemanticVersion.valueOf("1.2.3-rc")));
+    assertEquals(3, resolver.candidates().size());
+    assertEquals(SemanticVersion.valueOf("1.2.3-rc"),
+        resolver.highest(VersionConstraint.parse(">=1.2.3-beta"), false));
+    assertEquals(SemanticVersion.valueOf("1.2.2"), resolver.highest(VersionConstraint.parse("^1.2"), false));
+    assertEquals(SemanticVersion.valueOf("1.2.4-beta"), resolver.highest(VersionConstraint.parse("^1.2"), true));
+    assertNull(resolver.highest(VersionConstraint.parse(">1.2.3"), false));
+  }
+
+  @Test
+  public void testHighestInParallel() {
+    Map<String, VersionResolver> resolvers = new HashMap<>();
+    Map<String, VersionConstraint> constraints = new HashMap<>();
+    Map<String, SemanticVersion> expected = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      String artifact = "artifact" + i;
+      resolvers.put(artifact, VersionResolver.of(List.of(SemanticVersion.valueOf(i + ".0.0"),
+          SemanticVersion.valueOf(i + ".1.0"), SemanticVersion.valueOf((i + 1) + ".0.0"))));
+      constraints.put(artifact, VersionConstraint.parse("~" + i + ".0"));
+      expected.put(artifact, SemanticVersion.valueOf(i + ".0.0"));
+    }
+    constraints.put("unknown", VersionConstraint.parse("*"));
+    constraints.put("artifact0", VersionConstraint.parse(">5"));
+    expected.remove("artifact0");
+    assertEquals(expected, VersionResolver.highestInParallel(resolvers, constraints, false));
+  }
+}
@@ -0,0 +1,76 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.pr0methean.semver.VersionStringComparator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionStringComparatorTest {
+  /**
+   * String-level edge cases that {@link TestUtil#TEST_VERSION_STRINGS_FOR_SORTING} doesn't cover, such as leading
+   * zeros, hyphens and upper case.
+   */
+  private static final String[] EXTRA_VERSION_STRINGS = {
+      "0.0.0-0", "0.0.0", "1.0.0-00", "1.0.0-01a", "1.0.0--", "1.0.0-A", "1.0.0-alpha-1", "1.0.0-alphabet", "01.0.0",
+      "1.0.10", "1.2.0", "1.10.0", "10.0.0"
+  };
+
+  private static List<String> versionStrings() {
+    List<String> strings = new ArrayList<>(Arrays.asList(TestUtil.TEST_VERSION_STRINGS_FOR_SORTING));
+    strings.addAll(Arrays.asList(EXTRA_VERSION_STRINGS));
+    return strings;
+  }
+
+  @Test
+  public void testOrderMatchesParsedComparators() {
+    List<String> strings = new ArrayList<>();
+    for (String versionString : versionStrings()) {
+      strings.add(versionString);
+      strings.add(versionString + "+a");
+      strings.add(versionString + "+a-b");
+      strings.add(versionString + "+b");
+      strings.add(versionString + "+ab");
+    }
+    for (String s1 : strings) {
+      SemanticVersion v1 = SemanticVersion.valueOf(s1);
+      for (String s2 : strings) {
+        SemanticVersion v2 = SemanticVersion.valueOf(s2);
+        int expected = Integer.signum(SemanticVersion.BUILD_METADATA_AGNOSTIC_COMPARATOR.compare(v1, v2));
+        assertEquals(expected, Integer.signum(BUILD_METADATA_AGNOSTIC.compare(s1, s2)), s1 + " vs " + s2);
+        assertEquals(expected, Integer.signum(VALIDATING_BUILD_METADATA_AGNOSTIC.compare(s1, s2)), s1 + " vs " + s2);
+        expected = Integer.signum(SemanticVersion.TOTAL_ORDERING.compare(v1, v2));
+        assertEquals(expected, Integer.signum(TOTAL.compare(s1, s2)), s1 + " vs " + s2);
+        assertEquals(expected, Integer.signum(VALIDATING_TOTAL.compare(s1, s2)), s1 + " vs " + s2);
+      }
+    }
+  }
+
+  @Test
+  public void testSortsCharSequences() {
+    StringBuilder[] builders = versionStrings().stream().map(StringBuilder::new).toArray(StringBuilder[]::new);
+    Arrays.sort(builders, TOTAL);
+    for (int i = 1; i < builders.length; i++) {
+      assertTrue(SemanticVersion.TOTAL_ORDERING.compare(SemanticVersion.valueOf(builders[i - 1].toString()),
+          SemanticVersion.valueOf(builders[i].toString())) <= 0);
+    }
+  }
+
+  @Test
+  public void testInvalidInput() {
+    for (String invalid : new String[] {"", "1", "1.2", "1.2.3.4", "1.2.3-", "1.2.3-a..b", "1.2.3+", "x.y.z", "-"}) {
+      assertThrows(IllegalArgumentException.class, () -> VALIDATING_TOTAL.compare(invalid, "1.0.0"), invalid);
+      assertThrows(IllegalArgumentException.class,
+          () -> VALIDATING_BUILD_METADATA_AGNOSTIC.compare("1.0.0", invalid), invalid);
+      // Non-validating instances must not throw, whatever they return
+      TOTAL.compare(invalid, "1.0.0-a.b+c");
+      BUILD_METADATA_AGNOSTIC.compare("1.0.0-a.b+c", invalid);
+      TOTAL.compare(invalid, invalid);
+    }
+    assertThrows(NumberFormatException.class,
+        () -> VALIDATING_TOTAL.compare("18446744073709551616.0.0", "1.0.0"));
+  }
+}
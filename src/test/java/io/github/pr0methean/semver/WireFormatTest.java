@@ -0,0 +1,147 @@
+package io.github.pr0methean.semver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireFormatTest {
+  private static final String[] VERSION_STRINGS = {
+      "0.0.0",
+      "1.2.3",
+      "2097151.2097151.2097151",
+      "2097152.0.0",
+      "1.0.0-0",
+      "1.0.0-alpha",
+      "1.0.0-alpha.1",
+      "1.0.0-0a.beta-2.rc",
+      "1.0.0-18446744073709551615",
+      "1.0.0+build-5",
+      "1.0.0-rc.1+build-5",
+      "18446744073709551615.18446744073709551615.18446744073709551615"
+  };
+
+  private static List<SemanticVersion> versions() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (String versionString : VERSION_STRINGS) {
+      versions.add(SemanticVersion.valueOf(versionString));
+    }
+    versions.add(SemanticVersion.valueOf("1.0.0").withBuildMetadata("é", true));
+    versions.add(SemanticVersion.MIN_VALUE);
+    versions.add(SemanticVersion.MAX_VALUE);
+    return versions;
+  }
+
+  @Test
+  public void testByteBufferRoundTrip() {
+    for (SemanticVersion version : versions()) {
+      ByteBuffer buffer = ByteBuffer.allocate(WireFormat.encodedLength(version) + 1);
+      buffer.put((byte) 42);
+      WireFormat.writeTo(version, buffer);
+      assertFalse(buffer.hasRemaining(), version::toString);
+      buffer.flip();
+      buffer.get();
+      SemanticVersion decoded = WireFormat.readFrom(buffer);
+      assertEquals(version, decoded);
+      assertEquals(version.buildMetadata(), decoded.buildMetadata());
+      assertEquals(version.toString(), decoded.toString());
+      assertFalse(buffer.hasRemaining());
+    }
+  }
+
+  @Test
+  public void testDataStreamRoundTrip() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    List<SemanticVersion> versions = versions();
+    for (SemanticVersion version : versions) {
+      WireFormat.writeTo(version, out);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (SemanticVersion version : versions) {
+      assertEquals(version.toString(), WireFormat.readFrom(in).toString());
+    }
+    assertThrows(EOFException.class, () -> WireFormat.readFrom(in));
+  }
+
+  @Test
+  public void testCompact() {
+    assertEquals(4, WireFormat.encodedLength(SemanticVersion.valueOf("1.2.3")));
+    assertEquals(13, WireFormat.encodedLength(SemanticVersion.valueOf("1.2.3-alpha.1")));
+  }
+
+  @Test
+  public void testJavaSerializationRoundTrip() throws IOException, ClassNotFoundException {
+    for (SemanticVersion version : versions()) {
+      SemanticVersion deserialized = (SemanticVersion) deserialize(serialize(version));
+      assertEquals(version, deserialized);
+      assertEquals(version.toString(), deserialized.toString());
+      assertEquals(version.hashCode(), deserialized.hashCode());
+    }
+    PrereleaseIdentifier identifier = PrereleaseIdentifier.valueOf("12gamma");
+    assertEquals(identifier, deserialize(serialize(identifier)));
+    assertSame(PrereleaseIdentifier.valueOf("alpha"), deserialize(serialize(PrereleaseIdentifier.valueOf("alpha"))));
+  }
+
+  @Test
+  public void testJavaSerializationIsSmall() throws IOException {
+    assertTrue(serialize(SemanticVersion.valueOf("1.2.3-alpha.1+build-5")).length < 100);
+  }
+
+  @Test
+  public void testMalformedInputRejected() throws IOException {
+    assertThrows(IllegalArgumentException.class, () -> WireFormat.readFrom(ByteBuffer.wrap(new byte[] {4, 1, 2, 3})));
+    // Prerelease flag with zero identifiers
+    assertThrows(IllegalArgumentException.class,
+        () -> WireFormat.readFrom(ByteBuffer.wrap(new byte[] {1, 1, 2, 3, 0})));
+    // Empty non-numeric identifier
+    assertThrows(IllegalArgumentException.class,
+        () -> WireFormat.readFrom(ByteBuffer.wrap(new byte[] {1, 1, 2, 3, 1, 0})));
+    // Non-numeric identifier starting with a digit
+    assertThrows(IllegalArgumentException.class,
+        () -> WireFormat.readFrom(ByteBuffer.wrap(new byte[] {1, 1, 2, 3, 1, 2, '1'})));
+    // Varint that overflows an unsigned long
+    byte[] overflow = {0, -1, -1, -1, -1, -1, -1, -1, -1, -1, 2, 0, 0};
+    assertThrows(IllegalArgumentException.class, () -> WireFormat.readFrom(ByteBuffer.wrap(overflow)));
+    assertThrows(BufferUnderflowException.class, () -> WireFormat.readFrom(ByteBuffer.wrap(new byte[] {0, 1, 2})));
+    // Counts and lengths larger than the input, which mustn't be allocated up front
+    byte[] hugeCount = {1, 1, 2, 3, -1, -1, -1, -1, 7, 2, 'a'};
+    byte[] hugeSuffix = {1, 1, 2, 3, 1, -2, -1, -1, -1, 7, 'a'};
+    byte[] hugeBuildMetadata = {2, 1, 2, 3, -1, -1, -1, -1, 7, 'a'};
+    for (byte[] huge : new byte[][] {hugeCount, hugeSuffix, hugeBuildMetadata}) {
+      assertThrows(IllegalArgumentException.class, () -> WireFormat.readFrom(ByteBuffer.wrap(huge)));
+      assertThrows(EOFException.class, () -> WireFormat.readFrom(new DataInputStream(new ByteArrayInputStream(huge))));
+    }
+
+    byte[] serialized = serialize(SemanticVersion.valueOf("1.2.3"));
+    serialized[serialized.length - 5] = 4; // Unknown flag
+    assertThrows(InvalidObjectException.class, () -> deserialize(serialized));
+  }
+
+  private static byte[] serialize(Object object) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Object deserialize(byte[] serialized) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+      return in.readObject();
+    }
+  }
+}